@@ -0,0 +1,46 @@
+package bookstore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import bookstore.dto.ImportReport;
+import bookstore.service.BookImportService;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Imports a catalogue file at startup: run with bookstore.import.file=<path to .csv/.json>.
+// Re-running with the same file after a failure resumes from the last committed chunk.
+@Component
+@ConditionalOnProperty(name = "bookstore.import.file")
+public class BookImportRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportRunner.class);
+
+    private final BookImportService importService;
+    private final String file;
+
+    @Autowired
+    public BookImportRunner(BookImportService importService, @Value("${bookstore.import.file}") String file) {
+        this.importService = importService;
+        this.file = file;
+    }
+
+    @Bean
+    public CommandLineRunner importBooksFromFile() {
+        return args -> {
+            Path path = Paths.get(file);
+            ImportReport report = importService.importBooks(path.getFileName().toString(), new FileSystemResource(path), null);
+            logger.info("Import {} of {}: {}, {} imported, {} rejected", report.id(), path, report.status(),
+                    report.rowsImported(), report.rowsRejected());
+            report.errors().forEach(error -> logger.info("  row {}: {}", error.row(), error.message()));
+        };
+    }
+}
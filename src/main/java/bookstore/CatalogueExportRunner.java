@@ -0,0 +1,62 @@
+package bookstore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+
+import bookstore.dto.BookSummary;
+import bookstore.service.CatalogueExportService;
+import bookstore.util.SparseFieldset;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Exports the catalogue at startup: run with bookstore.export.file=<path>.csv|.ndjson|.json
+// (and optionally bookstore.export.fields=title,isbn,...). The file is written under a
+// temporary name and moved into place once complete, so a reader never sees half an export.
+@Component
+@ConditionalOnProperty(name = "bookstore.export.file")
+public class CatalogueExportRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogueExportRunner.class);
+
+    private final CatalogueExportService exportService;
+    private final String file;
+    private final String fields;
+
+    @Autowired
+    public CatalogueExportRunner(CatalogueExportService exportService,
+                                 @Value("${bookstore.export.file}") String file,
+                                 @Value("${bookstore.export.fields:}") String fields) {
+        this.exportService = exportService;
+        this.file = file;
+        this.fields = fields;
+    }
+
+    @Bean
+    public CommandLineRunner exportCatalogue() {
+        return args -> {
+            Path target = Paths.get(file).toAbsolutePath();
+            CatalogueExportService.Format format = CatalogueExportService.Format.fromFileName(target.getFileName().toString());
+            SparseFieldset<BookSummary> fieldset = SparseFieldset.of(BookSummary.class, fields);
+            Path partial = target.resolveSibling(target.getFileName() + ".part");
+
+            long start = System.nanoTime();
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                rows = exportService.export(format, fieldset, out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Exported {} books to {} in {} ms", rows, target, (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+}
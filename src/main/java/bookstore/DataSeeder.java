@@ -5,8 +5,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
-import bookstore.repository.CategoryRepository;
 import bookstore.repository.RoleRepository;
+import bookstore.service.CategoryService;
 import bookstore.service.UserService;
 import bookstore.dto.UserDto;
 import bookstore.models.Category;
@@ -21,15 +21,15 @@ public class DataSeeder {
 
     private final RoleRepository roleRepository;
     private final UserService userService;
-    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
 
     private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
 
     @Autowired
-    public DataSeeder(RoleRepository roleRepository, UserService userService, CategoryRepository categoryRepository) {
+    public DataSeeder(RoleRepository roleRepository, UserService userService, CategoryService categoryService) {
         this.roleRepository = roleRepository;
         this.userService = userService;
-        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
     }
 
     @Bean
@@ -83,31 +83,30 @@ public class DataSeeder {
         // Drop all existing categories
         // categoryRepository.deleteAll();
 
-        for (var catName : categories) {
-            Optional<Category> existingCategory = categoryRepository.findByName(catName);
-            if(existingCategory.isEmpty()) {
-                Category category = new Category();
-                category.setName(catName);
-                categoryRepository.save(category);
-            } else {
-                System.out.println("Category '" + catName + "' already exists. Skipping seed.");
-            }
-        }
+        // One query for the existing names and one batched insert for the rest
+        List<Category> created = categoryService.addCategories(categories);
+        logger.info("Seeded {} categories, {} already existed.", created.size(), new HashSet<>(categories).size() - created.size());
     }
 
     private void seedRolesIfNotExists() {
         List<String> roles = Arrays.asList("ROLE_USER", "ROLE_ADMIN", "ROLE_BOOK_AUTHOR", "ROLE_BOOK_WRITER");
 
+        Set<String> existing = new HashSet<>();
+        roleRepository.findAll().forEach(role -> existing.add(role.getName()));
+
+        List<Role> missing = new ArrayList<>();
         for (String roleName : roles) {
-            if (!roleRepository.existsByName(roleName)) {
+            if (!existing.contains(roleName)) {
                 Role role = new Role();
                 role.setName(roleName);
-                roleRepository.save(role);
+                missing.add(role);
                 logger.info("Role '{}' seeded.", roleName);
             } else {
                 logger.info("Role '{}' already exists. Skipping seed.", roleName);
             }
         }
+        // Inserted in one batch
+        roleRepository.saveAll(missing);
     }
 
     private void createAdminUser() {
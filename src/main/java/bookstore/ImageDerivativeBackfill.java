@@ -0,0 +1,85 @@
+package bookstore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import bookstore.service.ImageDerivativeService;
+import bookstore.service.MediaStorageService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// One-off job for images uploaded before derivatives existed: run once with
+// bookstore.media.backfill=true and every original without a thumbnail gets its derivatives
+// generated on the media executor. Safe to re-run; images that already have them are skipped.
+@Component
+@ConditionalOnProperty(name = "bookstore.media.backfill", havingValue = "true")
+public class ImageDerivativeBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeBackfill.class);
+
+    // Content-addressed blobs plus the per-owner directories used before them
+    private static final List<String> IMAGE_DIRS = List.of(MediaStorageService.BLOB_DIR, "uploads/books", "uploads/authors");
+
+    private final ImageDerivativeService derivativeService;
+    private final ThreadPoolTaskExecutor mediaExecutor;
+
+    @Autowired
+    public ImageDerivativeBackfill(ImageDerivativeService derivativeService,
+                                   @Qualifier("mediaExecutor") ThreadPoolTaskExecutor mediaExecutor) {
+        this.derivativeService = derivativeService;
+        this.mediaExecutor = mediaExecutor;
+    }
+
+    @Bean
+    public CommandLineRunner backfillImageDerivatives() {
+        return args -> {
+            AtomicInteger submitted = new AtomicInteger();
+            for (String directory : IMAGE_DIRS) {
+                for (String imageUrl : originalsWithoutDerivatives(directory)) {
+                    // CallerRunsPolicy throttles this loop when the queue is full
+                    mediaExecutor.execute(() -> generate(imageUrl));
+                    submitted.incrementAndGet();
+                }
+            }
+            logger.info("Queued derivative generation for {} images", submitted.get());
+        };
+    }
+
+    private List<String> originalsWithoutDerivatives(String directory) throws IOException {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(dir, 3)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return !name.startsWith(".") && !ImageDerivativeService.isDerivative(name);
+                    })
+                    .map(file -> "/" + directory + "/" + dir.relativize(file).toString().replace('\\', '/'))
+                    .filter(imageUrl -> !derivativeService.hasDerivatives(imageUrl))
+                    .toList();
+        }
+    }
+
+    private void generate(String imageUrl) {
+        try {
+            derivativeService.generate(imageUrl);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate derivatives for {}: {}", imageUrl, e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,59 @@
 package bookstore.config;
 
+import bookstore.dto.CursorPage;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(CacheSettings.class)
 public class CacheConfig {
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("authors", "categories", "books");
+    public CacheManager cacheManager(CacheSettings settings) {
+        CatalogueCacheManager cacheManager = new CatalogueCacheManager(() -> builder(settings.getDefaultSpec()));
+
+        for (Map.Entry<String, String> entry : settings.getSpecs().entrySet()) {
+            cacheManager.registerCustomCache(entry.getKey(),
+                    cacheManager.tracked(entry.getKey(), builder(entry.getValue())).build());
+        }
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(String spec) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (spec.contains("maximumWeight")) {
+            // A cached page or list costs as much as the rows it holds, a single entity costs 1,
+            // rendered HTML costs its size in KB
+            return builder.weigher(CacheConfig::weigh);
+        }
+        return builder;
+    }
+
+    static int weigh(Object key, Object value) {
+        if (value instanceof RenderedPageCacheFilter.RenderedPage page) {
+            return Math.max(1, page.body().length / 1024);
+        }
+        if (value instanceof String html) {
+            return Math.max(1, html.length() / 1024);
+        }
+        if (value instanceof Slice<?> slice) {
+            return Math.max(1, slice.getNumberOfElements());
+        }
+        if (value instanceof CursorPage<?> page) {
+            return Math.max(1, page.content().size());
+        }
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        return 1;
     }
 }
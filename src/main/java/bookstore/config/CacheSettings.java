@@ -0,0 +1,43 @@
+package bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Caffeine specs per cache region, e.g.
+// bookstore.cache.specs.books=maximumWeight=5000,expireAfterWrite=10m,recordStats
+@ConfigurationProperties(prefix = "bookstore.cache")
+public class CacheSettings {
+
+    // Used for any region without its own spec (and for regions created on the fly)
+    private String defaultSpec = "maximumSize=500,expireAfterWrite=10m,recordStats";
+
+    private Map<String, String> specs = new HashMap<>(Map.of(
+        "books", "maximumWeight=5000,expireAfterWrite=10m,recordStats",
+        "booksByAuthor", "maximumWeight=5000,expireAfterWrite=10m,recordStats",
+        "booksByCategory", "maximumWeight=10000,expireAfterWrite=5m,recordStats",
+        "booksByIsbn", "maximumSize=2000,expireAfterAccess=30m,recordStats",
+        "authors", "maximumWeight=5000,expireAfterWrite=10m,recordStats",
+        "categories", "maximumWeight=2000,expireAfterWrite=30m,recordStats",
+        // Rendered HTML, weighed in KB: 16MB of anonymous pages, 4MB of row fragments
+        "renderedPages", "maximumWeight=16384,expireAfterWrite=10m,recordStats",
+        "fragments", "maximumWeight=4096,expireAfterAccess=30m,recordStats"
+    ));
+
+    public String getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    public void setDefaultSpec(String defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    public Map<String, String> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(Map<String, String> specs) {
+        this.specs = specs;
+    }
+}
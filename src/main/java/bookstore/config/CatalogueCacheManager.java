@@ -0,0 +1,72 @@
+package bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.function.Supplier;
+
+// CaffeineCacheManager whose regions report puts and size/expiry evictions to an EntryTracker
+// (CatalogueCacheInvalidator), so its registry of which entry renders which row follows what
+// is actually cached instead of growing with every key ever registered.
+public class CatalogueCacheManager extends CaffeineCacheManager {
+
+    public interface EntryTracker {
+        // Runs put unless the entry was invalidated after it was read from the database
+        void put(String cache, Object key, Object value, Runnable put);
+
+        // Caffeine dropped the entry for size or expiry; called asynchronously
+        void evicted(String cache, Object key, Object value);
+    }
+
+    private final Supplier<Caffeine<Object, Object>> defaultBuilder;
+    private volatile EntryTracker tracker;
+
+    public CatalogueCacheManager(Supplier<Caffeine<Object, Object>> defaultBuilder) {
+        this.defaultBuilder = defaultBuilder;
+    }
+
+    public void setEntryTracker(EntryTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    // Adds the eviction callback to a region's builder
+    public Caffeine<Object, Object> tracked(String name, Caffeine<Object, Object> builder) {
+        return builder.removalListener((key, value, cause) -> {
+            EntryTracker current = tracker;
+            if (cause.wasEvicted() && current != null) {
+                current.evicted(name, key, value);
+            }
+        });
+    }
+
+    // Regions that are not configured explicitly still get a bounded default
+    @Override
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        return tracked(name, defaultBuilder.get()).build();
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new TrackedCache(name, cache, isAllowNullValues());
+    }
+
+    private class TrackedCache extends CaffeineCache {
+
+        TrackedCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            EntryTracker current = tracker;
+            if (current == null) {
+                super.put(key, value);
+            } else {
+                current.put(getName(), key, value, () -> super.put(key, value));
+            }
+        }
+    }
+}
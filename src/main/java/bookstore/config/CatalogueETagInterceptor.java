@@ -0,0 +1,67 @@
+package bookstore.config;
+
+import bookstore.service.CatalogueCacheInvalidator;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conditional GET for the catalogue pages. The weak ETag is the catalogue version (bumped by
+ * every committed write, see CatalogueCacheInvalidator) plus a hash of who is looking: pages
+ * show the user's name, admin-only buttons and the session's CSRF token, so two users, or one
+ * user across logins, never share a tag. A matching If-None-Match is answered with 304 here,
+ * before the controller runs, so an unchanged page costs no query and no render.
+ *
+ * The startup time is part of the tag because the counter restarts at zero.
+ */
+@Component
+public class CatalogueETagInterceptor implements HandlerInterceptor {
+
+    // Spring Security would send "no-store"; browsers must keep the page to revalidate it
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    public CatalogueETagInterceptor(CatalogueCacheInvalidator cacheInvalidator) {
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // A page carrying flash messages from a redirect is one-off: render it and don't tag it
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request);
+        if (flash != null && !flash.isEmpty()) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(etag(request));
+    }
+
+    String etag(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        String user = principal == null ? "" : principal.getName();
+        String roles = principal instanceof Authentication authentication ? authentication.getAuthorities().toString() : "";
+        HttpSession session = request.getSession(false);
+        String viewer = Integer.toHexString(Objects.hash(user, roles, session == null ? null : session.getId(),
+                request.getLocale()));
+        return "W/\"" + epoch + "-" + cacheInvalidator.version() + "-" + viewer + "\"";
+    }
+}
@@ -0,0 +1,31 @@
+package bookstore.config;
+
+import bookstore.util.ConnectionOwner;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Labels the request thread with the controller method handling it, so connection pool
+// metrics and leak warnings are attributed to e.g. BookController#listBooks. The label stays
+// until afterCompletion, which also covers connections opened while the view renders.
+@Component
+public class ConnectionOwnerInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            ConnectionOwner.set(method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        } else {
+            ConnectionOwner.set(request.getMethod() + " " + request.getRequestURI());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ConnectionOwner.clear();
+    }
+}
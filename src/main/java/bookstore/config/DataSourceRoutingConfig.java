@@ -0,0 +1,94 @@
+package bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Only active once a replica is configured: the application DataSource becomes
+// LazyConnectionDataSourceProxy -> ReplicaRoutingDataSource -> {primary pool, replica pools}.
+// @Transactional(readOnly = true) service methods read from a replica, everything else
+// (writes, and reads outside a read-only transaction) uses the primary.
+@Configuration
+@EnableConfigurationProperties(DataSourceSettings.class)
+@ConditionalOnProperty(name = "bookstore.datasource.replicas[0].url")
+public class DataSourceRoutingConfig {
+
+    // spring.datasource.* and spring.datasource.hikari.*, as Boot would have configured it
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                                      DataSourceSettings settings, PoolMetrics poolMetrics) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaPools(properties, settings, poolMetrics),
+                settings.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // A session keeps its connection until it closes by default, and with open-session-in-view
+    // that is the whole request: a write after a read-only lookup (e.g. findById then save) would
+    // reuse the replica connection. Releasing it after every transaction lets the next one be
+    // routed on its own.
+    @Bean
+    public HibernatePropertiesCustomizer connectionHandlingHibernateProperties() {
+        return properties -> properties.putIfAbsent(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(ReplicaRoutingDataSource routingDataSource,
+                                                     DataSourceSettings settings) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String name : routingDataSource.replicaNames()) {
+            replicas.put(name, routingDataSource.getResolvedDataSources().get(name));
+        }
+        return new ReplicaHealthMonitor(routingDataSource, replicas, settings.getLagQuery(), settings.getMaxLag());
+    }
+
+    private static Map<String, DataSource> replicaPools(DataSourceProperties properties, DataSourceSettings settings,
+                                                        PoolMetrics poolMetrics) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        List<DataSourceSettings.Replica> replicas = settings.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSourceSettings.Replica replica = replicas.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            pool.setMaximumPoolSize(settings.getReplicaPoolSize());
+            pool.setReadOnly(true);
+            // A replica that is down at startup must not stop the application; the monitor skips it
+            pool.setInitializationFailTimeout(-1);
+            // Not beans, so PoolConfig's post-processor never sees them
+            poolMetrics.instrument(pool);
+            pools.put(pool.getPoolName(), pool);
+        }
+        return pools;
+    }
+}
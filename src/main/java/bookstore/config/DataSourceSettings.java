@@ -0,0 +1,100 @@
+package bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas for read-only transactions (DataSourceRoutingConfig), e.g.
+// bookstore.datasource.replicas[0].url=jdbc:postgresql://replica-1/bookstore
+// Without any replica everything uses spring.datasource as before.
+@ConfigurationProperties(prefix = "bookstore.datasource")
+public class DataSourceSettings {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind than this are skipped; it is also how long reads stay on the
+    // primary after a write, so a cache refilled right after a write never reads an old row
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    // Returns the replica's lag in seconds (null = none). Blank means the replicas are only
+    // checked for reachability. PostgreSQL:
+    // select extract(epoch from now() - pg_last_xact_replay_timestamp())
+    private String lagQuery = "";
+
+    private int replicaPoolSize = 10;
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public int getReplicaPoolSize() {
+        return replicaPoolSize;
+    }
+
+    public void setReplicaPoolSize(int replicaPoolSize) {
+        this.replicaPoolSize = replicaPoolSize;
+    }
+
+    public static class Replica {
+        private String url;
+        // Default to the primary's credentials
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package bookstore.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    // JDBC batching for every flush: inserts and updates are grouped per entity (ordered) and sent
+    // batch-size statements per round trip. Ids are assigned in the application (@TimeOrderedUuid),
+    // never by an identity column, so Hibernate can batch inserts. Anything set explicitly under
+    // spring.jpa.properties wins. PostgreSQL and MySQL only turn a batch into one multi-row insert
+    // with reWriteBatchedInserts=true / rewriteBatchedStatements=true on the JDBC URL.
+    @Bean
+    public HibernatePropertiesCustomizer batchingHibernateProperties(@Value("${bookstore.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
+    // Second-level cache for read-mostly reference data (Category, Role and their cacheable
+    // lookup queries), held in Caffeine through JCache; regions are sized in application.conf.
+    // Only entities annotated with @Cache are cached. Statistics feed /admin/metrics/hibernate.
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateProperties(
+            @Value("${bookstore.jpa.statistics:true}") boolean statistics) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            // Regions without an entry in application.conf are created with Caffeine's defaults
+            properties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "create");
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package bookstore.config;
+
+import bookstore.util.LatencyHistogram;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Adaptive pool sizing (bookstore.pool.adaptive.enabled=true). Every interval it looks at the
+// checkout waits recorded since the last look: a p95 above the target, or any timeout, grows
+// the pool by a quarter up to maxSize; a quiet pool with more than half its connections idle
+// shrinks back towards the size it was configured with.
+public class PoolAutoSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolAutoSizer.class);
+
+    private final PoolMetrics metrics;
+    private final Duration targetWait;
+    private final int maxSize;
+    private final Map<String, Window> windows = new HashMap<>();
+
+    public PoolAutoSizer(PoolMetrics metrics, Duration targetWait, int maxSize) {
+        this.metrics = metrics;
+        this.targetWait = targetWait;
+        this.maxSize = maxSize;
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.pool.adaptive.interval:PT30S}")
+    public synchronized void resize() {
+        for (PoolMetrics.PoolTracker pool : metrics.pools()) {
+            HikariDataSource dataSource = pool.dataSource();
+            if (dataSource == null || dataSource.isClosed()) {
+                continue;
+            }
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            Window window = windows.computeIfAbsent(pool.name(), name -> new Window(config.getMaximumPoolSize()));
+
+            long[] counts = pool.acquire().counts();
+            long[] interval = LatencyHistogram.difference(counts, window.counts);
+            long timeouts = pool.timeouts() - window.timeouts;
+            window.counts = counts;
+            window.timeouts = pool.timeouts();
+
+            int current = config.getMaximumPoolSize();
+            int next = nextSize(current, window.floor, Math.max(maxSize, window.floor),
+                    LatencyHistogram.percentile(interval, 0.95), timeouts, sum(interval),
+                    pool.stats().getIdleConnections(), targetWait);
+            if (next != current) {
+                // Hikari allows both at runtime; the minimum has to follow the maximum down
+                config.setMaximumPoolSize(next);
+                if (config.getMinimumIdle() > next) {
+                    config.setMinimumIdle(next);
+                }
+                logger.info("Pool {} resized from {} to {} connections (p95 wait {} ms, {} timeouts over {} checkouts)",
+                        pool.name(), current, next, LatencyHistogram.percentile(interval, 0.95).toMillis(),
+                        timeouts, sum(interval));
+            }
+        }
+    }
+
+    static int nextSize(int current, int floor, int ceiling, Duration p95Wait, long timeouts, long checkouts,
+                        int idle, Duration targetWait) {
+        if (checkouts > 0 && (timeouts > 0 || p95Wait.compareTo(targetWait) > 0)) {
+            return Math.min(ceiling, current + Math.max(1, current / 4));
+        }
+        boolean quiet = timeouts == 0 && p95Wait.compareTo(targetWait.dividedBy(4)) <= 0;
+        if (quiet && current > floor && idle > current / 2) {
+            return Math.max(floor, current - Math.max(1, current / 8));
+        }
+        return current;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static class Window {
+        // The size the pool was configured with; never shrink below it
+        final int floor;
+        long[] counts;
+        long timeouts;
+
+        Window(int floor) {
+            this.floor = floor;
+        }
+    }
+}
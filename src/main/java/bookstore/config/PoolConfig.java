@@ -0,0 +1,46 @@
+package bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Connection pool metrics (/admin/metrics/pool), leak reporting and optional adaptive sizing
+// for every HikariDataSource: Boot's own pool, or the primary pool when replicas are
+// configured (DataSourceRoutingConfig instruments the replica pools itself).
+@Configuration
+@EnableConfigurationProperties(PoolSettings.class)
+public class PoolConfig {
+
+    @Bean
+    public PoolMetrics poolMetrics(PoolSettings settings) {
+        return new PoolMetrics(settings.getLeakDetectionThreshold());
+    }
+
+    // Static, and the metrics are looked up lazily, so the data source beans it wraps are
+    // still post-processed normally. Runs before the pool starts: Hikari only accepts a
+    // metrics tracker until then.
+    @Bean
+    public static BeanPostProcessor poolInstrumentationPostProcessor(ObjectProvider<PoolMetrics> poolMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource dataSource && !dataSource.isRunning()) {
+                    poolMetrics.getObject().instrument(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bookstore.pool.adaptive.enabled", havingValue = "true")
+    public PoolAutoSizer poolAutoSizer(PoolMetrics poolMetrics, PoolSettings settings) {
+        return new PoolAutoSizer(poolMetrics, settings.getAdaptive().getTargetWait(), settings.getAdaptive().getMaxSize());
+    }
+}
@@ -0,0 +1,251 @@
+package bookstore.config;
+
+import bookstore.util.ConnectionOwner;
+import bookstore.util.LatencyHistogram;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker shared by every connection pool in the application (see
+ * PoolConfig). For each pool it keeps the active/idle/pending counts Hikari reports, a
+ * histogram of how long callers waited for a connection, how long connections were held,
+ * and checkout timeouts. The same figures are broken down by {@link ConnectionOwner}, so a
+ * slow /books/list can be told apart as database time (held) or pool time (waited).
+ *
+ * Connections held past the pool's leak detection threshold are logged with their owner
+ * when they come back; Hikari's own leak warning fires while they are still out and carries
+ * the stack that borrowed them.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolMetrics.class);
+
+    // Owners are controller methods and thread names, so this is only a guard
+    private static final int MAX_OWNERS = 500;
+    private static final String OTHER_OWNERS = "(other)";
+
+    private final Duration leakDetectionThreshold;
+    private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+    private final Map<String, PoolTracker> trackers = new ConcurrentHashMap<>();
+
+    public PoolMetrics(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    // Must run before the pool starts, i.e. before its first getConnection()
+    public void instrument(HikariDataSource dataSource) {
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName("default");
+        }
+        if (dataSource.getLeakDetectionThreshold() == 0 && !leakDetectionThreshold.isZero()) {
+            dataSource.setLeakDetectionThreshold(leakDetectionThreshold.toMillis());
+        }
+        dataSource.setMetricsTrackerFactory(this);
+        dataSources.put(dataSource.getPoolName(), dataSource);
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker(poolName, poolStats, dataSources.get(poolName));
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public Collection<PoolTracker> pools() {
+        return trackers.values();
+    }
+
+    public PoolTracker pool(String name) {
+        return trackers.get(name);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        trackers.values().stream()
+                .sorted(Comparator.comparing(PoolTracker::name))
+                .forEach(tracker -> result.put(tracker.name(), tracker.snapshot()));
+        return result;
+    }
+
+    private static double fractionalMillis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    public static class PoolTracker implements IMetricsTracker {
+
+        private final String name;
+        private final PoolStats stats;
+        private final HikariDataSource dataSource;
+        private final LatencyHistogram acquire = new LatencyHistogram();
+        private final LatencyHistogram usage = new LatencyHistogram();
+        private final LatencyHistogram creation = new LatencyHistogram();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder slowReturns = new LongAdder();
+        private final Map<String, OwnerStats> owners = new ConcurrentHashMap<>();
+
+        PoolTracker(String name, PoolStats stats, HikariDataSource dataSource) {
+            this.name = name;
+            this.stats = stats;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            creation.recordMillis(connectionCreatedMillis);
+        }
+
+        // Called on the borrowing thread once getConnection() has a connection
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.record(elapsedAcquiredNanos);
+            owner().acquired(elapsedAcquiredNanos);
+        }
+
+        // Called on the thread that closes the connection, normally the one that borrowed it
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.recordMillis(elapsedBorrowedMillis);
+            OwnerStats owner = owner();
+            owner.released(elapsedBorrowedMillis);
+            long threshold = dataSource != null ? dataSource.getLeakDetectionThreshold() : 0;
+            if (threshold > 0 && elapsedBorrowedMillis >= threshold) {
+                slowReturns.increment();
+                owner.slowReturns.increment();
+                logger.warn("Connection from pool {} was held for {} ms by {} (leak detection threshold {} ms)",
+                        name, elapsedBorrowedMillis, ConnectionOwner.current(), threshold);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            owner().timeouts.increment();
+        }
+
+        private OwnerStats owner() {
+            String owner = ConnectionOwner.current();
+            OwnerStats existing = owners.get(owner);
+            if (existing != null) {
+                return existing;
+            }
+            return owners.size() < MAX_OWNERS
+                    ? owners.computeIfAbsent(owner, key -> new OwnerStats())
+                    : owners.computeIfAbsent(OTHER_OWNERS, key -> new OwnerStats());
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public PoolStats stats() {
+            return stats;
+        }
+
+        public HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        public LatencyHistogram acquire() {
+            return acquire;
+        }
+
+        public long timeouts() {
+            return timeouts.sum();
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("active", stats.getActiveConnections());
+            result.put("idle", stats.getIdleConnections());
+            result.put("pending", stats.getPendingThreads());
+            result.put("total", stats.getTotalConnections());
+            result.put("maxSize", stats.getMaxConnections());
+            result.put("minIdle", stats.getMinConnections());
+            result.put("timeouts", timeouts.sum());
+            result.put("slowReturns", slowReturns.sum());
+            result.put("acquireTime", histogram(acquire, true));
+            result.put("usageTime", histogram(usage, false));
+            result.put("creationTime", histogram(creation, false));
+
+            // Worst waiters first
+            Map<String, Object> byOwner = new LinkedHashMap<>();
+            List<Map.Entry<String, OwnerStats>> sorted = owners.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, OwnerStats> e) -> e.getValue().waitNanos.sum())
+                            .reversed())
+                    .toList();
+            for (Map.Entry<String, OwnerStats> entry : sorted) {
+                byOwner.put(entry.getKey(), entry.getValue().snapshot());
+            }
+            result.put("owners", byOwner);
+            return result;
+        }
+
+        private static Map<String, Object> histogram(LatencyHistogram histogram, boolean withBuckets) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", histogram.count());
+            result.put("meanMs", fractionalMillis(histogram.mean()));
+            result.put("p50Ms", fractionalMillis(histogram.percentile(0.50)));
+            result.put("p95Ms", fractionalMillis(histogram.percentile(0.95)));
+            result.put("p99Ms", fractionalMillis(histogram.percentile(0.99)));
+            result.put("maxMs", fractionalMillis(histogram.max()));
+            if (withBuckets) {
+                result.put("buckets", histogram.buckets());
+            }
+            return result;
+        }
+    }
+
+    static class OwnerStats {
+
+        private final LongAdder checkouts = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder returns = new LongAdder();
+        private final LongAdder heldMillis = new LongAdder();
+        private final AtomicLong maxHeldMillis = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder slowReturns = new LongAdder();
+
+        void acquired(long nanos) {
+            checkouts.increment();
+            waitNanos.add(nanos);
+            maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void released(long millis) {
+            returns.increment();
+            heldMillis.add(millis);
+            maxHeldMillis.accumulateAndGet(millis, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long count = checkouts.sum();
+            long returned = returns.sum();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("checkouts", count);
+            result.put("meanWaitMs", count == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / count);
+            result.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+            result.put("meanHeldMs", returned == 0 ? 0.0 : (double) heldMillis.sum() / returned);
+            result.put("maxHeldMs", maxHeldMillis.get());
+            result.put("timeouts", timeouts.sum());
+            result.put("slowReturns", slowReturns.sum());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bookstore.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Connection pool instrumentation (PoolConfig). Applies to every Hikari pool in the
+// application: the default one, or the primary and replica pools when replicas are set.
+@ConfigurationProperties(prefix = "bookstore.pool")
+public class PoolSettings {
+
+    // Connections held longer than this are reported with their owner (and by Hikari with the
+    // stack that borrowed them). Zero turns it off; spring.datasource.hikari.leak-detection-threshold
+    // wins when set.
+    private Duration leakDetectionThreshold = Duration.ofSeconds(30);
+
+    private Adaptive adaptive = new Adaptive();
+
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public Adaptive getAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(Adaptive adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    // Grows a pool while callers wait longer than targetWait for a connection and shrinks it
+    // back towards its configured size once connections sit idle. Off by default: the
+    // database's own connection limit has to leave room for maxSize on every instance.
+    public static class Adaptive {
+
+        private boolean enabled = false;
+
+        // p95 checkout wait above which the pool grows
+        private Duration targetWait = Duration.ofMillis(20);
+
+        // Ceiling per pool; the configured maximum-pool-size is the floor
+        private int maxSize = 40;
+
+        private Duration interval = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTargetWait() {
+            return targetWait;
+        }
+
+        public void setTargetWait(Duration targetWait) {
+            this.targetWait = targetWait;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package bookstore.config;
+
+import bookstore.service.CatalogueCacheInvalidator;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serves anonymous visitors of the public listing pages from pre-rendered bytes.
+ *
+ * Only requests without a user and without a session are eligible, and a render is only
+ * stored if it did not create a session or set a cookie, so a cached page can never hold
+ * anything belonging to one visitor (name, admin links, CSRF token). Entries are keyed by
+ * URL, locale and catalogue version and live in the "renderedPages" cache region, which
+ * bounds them by size; the region is cleared as soon as the catalogue version moves.
+ *
+ * Registered as a plain servlet filter, so it runs inside the Spring Security chain and
+ * cached responses still get the security headers.
+ */
+@Component
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    public static final String CACHE = "renderedPages";
+    private static final Set<String> PATHS = Set.of("/books/list", "/books/search");
+
+    // What is replayed on a hit: the body plus the headers the controller path would have set
+    public record RenderedPage(byte[] body, String contentType, String etag, String cacheControl) {}
+
+    private record Key(String path, String query, Locale locale, long version) {}
+
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final Cache cache;
+    private long cachedVersion = -1;
+
+    @Autowired
+    public RenderedPageCacheFilter(CatalogueCacheInvalidator cacheInvalidator, CacheManager cacheManager) {
+        this.cacheInvalidator = cacheInvalidator;
+        this.cache = cacheManager.getCache(CACHE);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return cache == null
+                || !"GET".equals(request.getMethod())
+                || !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()))
+                || request.getUserPrincipal() != null
+                || request.getSession(false) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Key key = new Key(request.getRequestURI(), request.getQueryString(), request.getLocale(), cacheInvalidator.version());
+        clearIfStale(key.version());
+
+        RenderedPage page = cache.get(key, RenderedPage.class);
+        if (page != null) {
+            replay(page, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK
+                    && request.getSession(false) == null
+                    && !wrapper.containsHeader(HttpHeaders.SET_COOKIE)
+                    && key.version() == cacheInvalidator.version()) {
+                cache.put(key, new RenderedPage(wrapper.getContentAsByteArray(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.ETAG), wrapper.getHeader(HttpHeaders.CACHE_CONTROL)));
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(RenderedPage page, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (page.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, page.cacheControl());
+        }
+        if (page.etag() != null && new ServletWebRequest(request, response).checkNotModified(page.etag())) {
+            return;
+        }
+        response.setContentType(page.contentType());
+        response.setContentLength(page.body().length);
+        response.getOutputStream().write(page.body());
+    }
+
+    // Entries for older versions can never be requested again; drop them instead of waiting for expiry
+    private synchronized void clearIfStale(long version) {
+        if (version > cachedVersion) {
+            cache.clear();
+            cachedVersion = version;
+        }
+    }
+}
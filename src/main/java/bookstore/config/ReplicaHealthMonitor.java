@@ -0,0 +1,67 @@
+package bookstore.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+// Takes replicas out of the read rotation while they are unreachable or lag more than
+// bookstore.datasource.max-lag behind the primary, and puts them back once they catch up.
+public class ReplicaHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    public ReplicaHealthMonitor(ReplicaRoutingDataSource routingDataSource, Map<String, DataSource> replicas,
+                                String lagQuery, Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.replicas = replicas;
+        this.lagQuery = lagQuery == null ? "" : lagQuery.strip();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${bookstore.datasource.check-interval:PT5S}")
+    public void check() {
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            String problem = probe(replica.getValue());
+            boolean wasHealthy = routingDataSource.healthyReplicas().contains(name);
+            routingDataSource.setHealthy(name, problem == null);
+            if (wasHealthy && problem != null) {
+                logger.warn("Replica {} taken out of the read rotation: {}", name, problem);
+            } else if (!wasHealthy && problem == null) {
+                logger.info("Replica {} back in the read rotation", name);
+            }
+        }
+    }
+
+    // Null when the replica is usable, otherwise why not
+    private String probe(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery.isEmpty()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS) ? null : "connection is not valid";
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                try (ResultSet result = statement.executeQuery(lagQuery)) {
+                    double lag = result.next() ? result.getDouble(1) : 0;
+                    return lag > maxLagSeconds ? String.format("%.1fs behind the primary", lag) : null;
+                }
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+}
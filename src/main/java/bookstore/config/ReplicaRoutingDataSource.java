@@ -0,0 +1,112 @@
+package bookstore.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy read replica (round robin) and everything else to
+ * the primary. The key is decided when a connection is first needed, so this must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for the connection before it
+ * marks the transaction read-only, and the proxy defers that until the first statement.
+ *
+ * Reads fall back to the primary when no replica is healthy (see ReplicaHealthMonitor), and for
+ * maxLag after any read-write transaction on this node: caches are evicted right after a commit
+ * and must not be refilled from a replica that has not seen it yet.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final long maxLagNanos;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long lastWriteNanos;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.replicaNames = List.copyOf(new LinkedHashMap<>(replicas).keySet());
+        this.maxLagNanos = maxLag.toNanos();
+        this.lastWriteNanos = System.nanoTime() - maxLagNanos;
+        afterPropertiesSet();
+    }
+
+    public List<String> replicaNames() {
+        return replicaNames;
+    }
+
+    public void setHealthy(String replica, boolean healthy) {
+        if (healthy) {
+            unhealthy.remove(replica);
+        } else {
+            unhealthy.add(replica);
+        }
+    }
+
+    public List<String> healthyReplicas() {
+        List<String> healthy = new ArrayList<>(replicaNames.size());
+        for (String name : replicaNames) {
+            if (!unhealthy.contains(name)) {
+                healthy.add(name);
+            }
+        }
+        return healthy;
+    }
+
+    // The replica pools belong to this router; the primary is closed by its own bean
+    @Override
+    public void close() throws Exception {
+        for (String name : replicaNames) {
+            if (getResolvedDataSources().get(name) instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (System.nanoTime() - lastWriteNanos < maxLagNanos) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    // The window starts now and again once the transaction is over, however long it ran
+    private void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lastWriteNanos = System.nanoTime();
+                }
+            });
+        }
+    }
+}
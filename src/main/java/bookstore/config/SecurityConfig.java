@@ -7,12 +7,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandlerImpl;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 
 @Configuration
 public class SecurityConfig {
@@ -30,8 +32,9 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests((requests) -> requests
-                .requestMatchers("/auth/register", "/auth/login", "/auth/reset-password", "/auth/forgot-password", "/css/**", "/h2-console/**", "/books/list").permitAll()
+                .requestMatchers("/auth/register", "/auth/login", "/auth/reset-password", "/auth/forgot-password", "/css/**", "/h2-console/**", "/books/list", "/books/search", "/books/autocomplete", "/js/**", "/uploads/**").permitAll()
                 // .requestMatchers("/books/add", "/books/edit/**", "/books/delete/**").hasRole("ADMIN")
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin((form) -> form
@@ -50,8 +53,12 @@ public class SecurityConfig {
                 .logoutSuccessUrl("/auth/login?logout")
                 .permitAll()
             )
+            // API clients authenticate with HTTP Basic (no session is created for them)
+            .httpBasic(Customizer.withDefaults())
             .exceptionHandling((csrf) -> csrf
                 .accessDeniedHandler(new AccessDeniedHandlerImpl())
+                // API clients get a 401 challenge instead of the login page redirect
+                .defaultAuthenticationEntryPointFor(apiAuthenticationEntryPoint(), new AntPathRequestMatcher("/api/**"))
                 .defaultAuthenticationEntryPointFor((request, response, e) -> {
                     response.sendRedirect(request.getContextPath() + "/auth/login");
                 }, new AntPathRequestMatcher("/**")) // Redirect unauthorized access to login page if not authenticated
@@ -66,6 +73,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static BasicAuthenticationEntryPoint apiAuthenticationEntryPoint() {
+        BasicAuthenticationEntryPoint entryPoint = new BasicAuthenticationEntryPoint();
+        entryPoint.setRealmName("bookstore");
+        return entryPoint;
+    }
+
     @Bean
     public SavedRequestAwareAuthenticationSuccessHandler savedRequestAwareAuthenticationSuccessHandler() {
         SavedRequestAwareAuthenticationSuccessHandler successHandler = new SavedRequestAwareAuthenticationSuccessHandler();
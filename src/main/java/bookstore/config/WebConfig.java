@@ -10,8 +10,20 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private RequestInterceptor requestInterceptor;
 
+    @Autowired
+    private CatalogueETagInterceptor catalogueETagInterceptor;
+
+    @Autowired
+    private ConnectionOwnerInterceptor connectionOwnerInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(connectionOwnerInterceptor);
         registry.addInterceptor(requestInterceptor);
+        // Read-only catalogue listings, detail pages and API reads; forms and POSTs are not tagged
+        registry.addInterceptor(catalogueETagInterceptor)
+                .addPathPatterns("/books/list", "/books/search", "/authors/list", "/authors/{id}",
+                        "/authors/view/{id}", "/category/list", "/api/v1/**")
+                .excludePathPatterns("/authors/add");
     }
 }
@@ -0,0 +1,43 @@
+package bookstore.controller;
+
+import bookstore.service.CatalogueExportService;
+import bookstore.util.CursorToken;
+import bookstore.util.SparseFieldset;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Request parsing shared by the /api/v1 controllers. Malformed input is the client's fault
+// (400); an IllegalArgumentException from a service lookup still means "not found".
+final class ApiSupport {
+
+    private ApiSupport() {
+    }
+
+    static <T extends Record> SparseFieldset<T> fieldset(Class<T> type, String fields) {
+        try {
+            return SparseFieldset.of(type, fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    static String cursor(String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                CursorToken.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        return cursor;
+    }
+
+    static CatalogueExportService.Format exportFormat(String format) {
+        try {
+            return CatalogueExportService.Format.fromName(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
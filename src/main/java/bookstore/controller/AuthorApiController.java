@@ -0,0 +1,57 @@
+package bookstore.controller;
+
+import bookstore.dto.ApiPage;
+import bookstore.dto.AuthorSummary;
+import bookstore.dto.BookSummary;
+import bookstore.dto.CursorPage;
+import bookstore.service.AuthorService;
+import bookstore.service.BookService;
+import bookstore.util.SparseFieldset;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// JSON API for authors, see BookApiController
+@RestController
+@RequestMapping("/api/v1/authors")
+public class AuthorApiController {
+
+    private final AuthorService authorService;
+    private final BookService bookService;
+
+    @Autowired
+    public AuthorApiController(AuthorService authorService, BookService bookService) {
+        this.authorService = authorService;
+        this.bookService = bookService;
+    }
+
+    @GetMapping
+    public ApiPage listAuthors(@RequestParam(required = false) String cursor,
+                               @RequestParam(required = false) String fields) {
+        SparseFieldset<AuthorSummary> fieldset = ApiSupport.fieldset(AuthorSummary.class, fields);
+        CursorPage<AuthorSummary> page = authorService.getAuthorsAfter(ApiSupport.cursor(cursor));
+        return new ApiPage(fieldset.apply(page.content()), page.nextCursor());
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> getAuthor(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        SparseFieldset<AuthorSummary> fieldset = ApiSupport.fieldset(AuthorSummary.class, fields);
+        return fieldset.apply(AuthorSummary.of(authorService.findAuthorById(id)));
+    }
+
+    @GetMapping("/{id}/books")
+    public List<Map<String, Object>> getAuthorBooks(@PathVariable UUID id,
+                                                    @RequestParam(required = false) String fields) {
+        SparseFieldset<BookSummary> fieldset = ApiSupport.fieldset(BookSummary.class, fields);
+        authorService.findAuthorById(id);
+        return fieldset.apply(bookService.findBooksByAuthor(id).stream().map(BookSummary::of).toList());
+    }
+}
@@ -1,9 +1,12 @@
 package bookstore.controller;
 
 import bookstore.dto.AuthorDTO;
+import bookstore.dto.AuthorSummary;
+import bookstore.dto.CursorPage;
 import bookstore.dto.UpdateAuthorDTO;
 import bookstore.models.Author;
 import bookstore.service.AuthorService;
+import bookstore.service.BookService;
 import jakarta.validation.Valid;
 
 import java.util.UUID;
@@ -23,16 +26,33 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class AuthorController {
     @Autowired
     private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
 
     @GetMapping("/list")
-    public String listAuthors(Model model, @RequestParam(defaultValue = "1") int page) {
+    public String listAuthors(Model model, @RequestParam(defaultValue = "1") int page,
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(defaultValue = "false") boolean withTotal) {
+        // Keyset mode: ?cursor= (first page) or ?cursor=<token>
+        if (cursor != null) {
+            CursorPage<AuthorSummary> authorPage = authorService.getAuthorsAfter(cursor);
+            model.addAttribute("authors", authorPage.content());
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", authorPage.nextCursor());
+            if (withTotal) {
+                model.addAttribute("totalItems", authorService.countAuthors());
+            }
+            model.addAttribute("pageTitle", "Author List - Company name");
+            return "author/list";
+        }
+
         // Ensure the page is at least 1
         if (page < 1) {
             page = 1;
         }
 
         // Fetch paginated categories
-        Page<Author> authorPage = authorService.getPaginatedAuthors(page);
+        Page<AuthorSummary> authorPage = authorService.getPaginatedAuthors(page);
 
         // Check if the requested page exceeds the total pages
         if (page > authorPage.getTotalPages() && authorPage.getTotalPages() > 0) {
@@ -53,6 +73,8 @@ public class AuthorController {
     @GetMapping("/{id}")
     public String viewAuthor(@PathVariable("id") UUID id, Model model) {
         model.addAttribute("author", authorService.findAuthorById(id));
+        // Loaded through the finder rather than the cached author's lazy books collection
+        model.addAttribute("books", bookService.findBooksByAuthor(id));
         return "author/details";
     }
 
@@ -139,6 +161,7 @@ public class AuthorController {
                 return "redirect:/authors/list";
             }
             model.addAttribute("author", author);
+            model.addAttribute("books", bookService.findBooksByAuthor(id));
             model.addAttribute("pageTitle", "View Author - Company name");
             return "author/details";
         } catch (Exception e) {
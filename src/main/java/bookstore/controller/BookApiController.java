@@ -0,0 +1,97 @@
+package bookstore.controller;
+
+import bookstore.dto.ApiPage;
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.BookSummary;
+import bookstore.dto.CursorPage;
+import bookstore.service.BookSearchService;
+import bookstore.service.BookService;
+import bookstore.service.CatalogueExportService;
+import bookstore.util.SparseFieldset;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+// JSON API for books. Collections are keyset-paged (?cursor=) and every endpoint takes
+// ?fields=a,b to trim rows; pages come from the same caches as /books/list.
+@RestController
+@RequestMapping("/api/v1/books")
+public class BookApiController {
+
+    private final BookService bookService;
+    private final BookSearchService searchService;
+    private final CatalogueExportService exportService;
+    // An export holds a pooled connection until the client has read the last row
+    private final Semaphore exportPermits;
+
+    @Autowired
+    public BookApiController(BookService bookService, BookSearchService searchService,
+                             CatalogueExportService exportService,
+                             @Value("${bookstore.export.max-concurrent:2}") int maxConcurrentExports) {
+        this.bookService = bookService;
+        this.searchService = searchService;
+        this.exportService = exportService;
+        this.exportPermits = new Semaphore(Math.max(0, maxConcurrentExports));
+    }
+
+    @GetMapping
+    public ApiPage listBooks(@RequestParam(required = false) String cursor,
+                             @RequestParam(required = false) String fields) {
+        SparseFieldset<BookSummary> fieldset = ApiSupport.fieldset(BookSummary.class, fields);
+        CursorPage<BookSummary> page = bookService.getBooksAfter(ApiSupport.cursor(cursor));
+        return new ApiPage(fieldset.apply(page.content()), page.nextCursor());
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> getBook(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        SparseFieldset<BookSearchDocument> fieldset = ApiSupport.fieldset(BookSearchDocument.class, fields);
+        return fieldset.apply(BookSearchDocument.of(bookService.findBookById(id)));
+    }
+
+    @GetMapping("/search")
+    public List<Map<String, Object>> searchBooks(@RequestParam(defaultValue = "") String q,
+                                                 @RequestParam(defaultValue = "" + BookSearchService.DEFAULT_LIMIT) int limit,
+                                                 @RequestParam(required = false) String fields) {
+        SparseFieldset<BookSummary> fieldset = ApiSupport.fieldset(BookSummary.class, fields);
+        return fieldset.apply(searchService.search(q, limit));
+    }
+
+    // The whole catalogue as a JSON array, NDJSON or CSV (?format=), written row by row while
+    // the database cursor is read. At most bookstore.export.max-concurrent run at once so slow
+    // downloads cannot take the whole connection pool; the rest get 503.
+    @GetMapping("/export")
+    public void exportBooks(@RequestParam(required = false) String fields,
+                            @RequestParam(defaultValue = "json") String format,
+                            HttpServletResponse response) throws IOException {
+        SparseFieldset<BookSummary> fieldset = ApiSupport.fieldset(BookSummary.class, fields);
+        CatalogueExportService.Format exportFormat = ApiSupport.exportFormat(format);
+        if (!exportPermits.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "60");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress, try again later");
+        }
+        try {
+            response.setContentType(exportFormat.contentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"books" + exportFormat.extension() + "\"");
+            exportService.export(exportFormat, fieldset, response.getOutputStream());
+        } finally {
+            exportPermits.release();
+        }
+    }
+}
@@ -3,9 +3,17 @@ package bookstore.controller;
 
 import bookstore.models.Book;
 import bookstore.dto.BookDTO;
+import bookstore.dto.BookFilter;
+import bookstore.dto.BookSummary;
+import bookstore.dto.CursorPage;
+import bookstore.dto.FacetedPage;
+import bookstore.dto.Suggestion;
+import bookstore.service.BookSearchService;
 import bookstore.service.BookService;
 import bookstore.service.AuthorService;
+import bookstore.service.AutocompleteService;
 import bookstore.service.CategoryService;
+import bookstore.service.FacetService;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +27,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Controller
@@ -28,24 +37,86 @@ public class BookController {
     private final BookService bookService;
     private final AuthorService authorService;
     private final CategoryService categoryService;
+    private final BookSearchService searchService;
+    private final AutocompleteService autocompleteService;
+    private final FacetService facetService;
 
     @Autowired
-    public BookController(BookService bookService, AuthorService authorService, CategoryService categoryService) {
+    public BookController(BookService bookService, AuthorService authorService, CategoryService categoryService,
+                          BookSearchService searchService, AutocompleteService autocompleteService,
+                          FacetService facetService) {
         this.bookService = bookService;
         this.authorService = authorService;
         this.categoryService = categoryService;
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+        this.facetService = facetService;
+    }
+
+    // Typeahead for the search box and the author picker on the book forms (type=author)
+    @GetMapping("/autocomplete")
+    @ResponseBody
+    public List<Suggestion> autocomplete(@RequestParam(defaultValue = "") String q,
+                                         @RequestParam(required = false) String type,
+                                         @RequestParam(defaultValue = "" + AutocompleteService.TOP_K) int limit) {
+        return autocompleteService.suggest(q, type, limit);
+    }
+
+    // Full-text search over title, description, ISBN, author and category, best matches first
+    @GetMapping("/search")
+    public String searchBooks(Model model, @RequestParam(defaultValue = "") String q,
+                              @RequestParam(defaultValue = "" + BookSearchService.DEFAULT_LIMIT) int limit) {
+        List<BookSummary> books = searchService.search(q, limit);
+        model.addAttribute("books", books);
+        model.addAttribute("query", q);
+        model.addAttribute("pageTitle", "Search Books - Company name");
+        return "book/search";
     }
 
     // Display the list of all books
     // No @PreAuthorize annotation here since this method should be accessible to all users
     @GetMapping("/list")
-    public String listBooks(Model model, @RequestParam(defaultValue = "1") int page) {
+    public String listBooks(Model model, @RequestParam(defaultValue = "1") int page,
+                            @RequestParam(required = false) String cursor,
+                            @RequestParam(defaultValue = "false") boolean withTotal,
+                            @RequestParam(required = false) UUID category,
+                            @RequestParam(required = false) UUID author,
+                            @RequestParam(defaultValue = "false") boolean available) {
+        BookFilter filter = new BookFilter(category, author, available);
+        model.addAttribute("filter", filter);
+
+        // Filtered mode: the page and all facet counts come from the facet index in one pass
+        if (!filter.isEmpty()) {
+            FacetedPage result = facetService.browse(filter, page);
+            model.addAttribute("books", result.books());
+            model.addAttribute("facets", result.facets());
+            model.addAttribute("page", result.page());
+            model.addAttribute("totalPages", result.totalPages());
+            model.addAttribute("totalItems", result.totalItems());
+            model.addAttribute("pageTitle", "Book List - Company name");
+            return "book/list";
+        }
+        model.addAttribute("facets", facetService.counts(filter));
+
+        // Keyset mode: ?cursor= (first page) or ?cursor=<token>
+        if (cursor != null) {
+            CursorPage<BookSummary> booksPage = bookService.getBooksAfter(cursor);
+            model.addAttribute("books", booksPage.content());
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", booksPage.nextCursor());
+            if (withTotal) {
+                model.addAttribute("totalItems", bookService.countBooks());
+            }
+            model.addAttribute("pageTitle", "Book List - Company name");
+            return "book/list";
+        }
+
         // Ensure the page is at least 1
         if (page < 1) {
             page = 1;
         }
 
-        Page<Book> booksPage = bookService.getPaginatedBooks(page);
+        Page<BookSummary> booksPage = bookService.getPaginatedBooks(page);
 
         // Check if the requested page exceeds the total pages
         if (page > booksPage.getTotalPages() && booksPage.getTotalPages() > 0) {
@@ -65,7 +136,7 @@ public class BookController {
     @GetMapping("/add")
     public String showAddBookForm(Model model) {
         model.addAttribute("book", new BookDTO());
-        this.populateAuthorsAndCategories(model);
+        this.populateFormChoices(model, null);
         model.addAttribute("pageTitle", "Add new book - Company name");
         return "book/add"; // This will render the add book form
     }
@@ -81,7 +152,7 @@ public class BookController {
 
         if (result.hasErrors()) {
             model.addAttribute("book", bookDTO);
-            this.populateAuthorsAndCategories(model);
+            this.populateFormChoices(model, bookDTO.getAuthorId());
             return "book/add";
         }
 
@@ -96,7 +167,7 @@ public class BookController {
             return "redirect:/books/list";
         } catch (Exception e) {
             model.addAttribute("errorMessage", "Error adding book: " + e.getMessage());
-            this.populateAuthorsAndCategories(model);
+            this.populateFormChoices(model, bookDTO.getAuthorId());
             return "book/add";
         }
     }
@@ -112,7 +183,8 @@ public class BookController {
                 return "redirect:/books/list";
             }
             model.addAttribute("book", book);
-            this.populateAuthorsAndCategories(model);
+            // Book.authorId is only filled by setAuthor(), never on a loaded book
+            this.populateFormChoices(model, book.getAuthor() != null ? book.getAuthor().getId() : null);
             model.addAttribute("pageTitle", "Edit Book - Company name");
             return "book/edit"; // This will render the edit book form
         } catch (Exception e) {
@@ -135,7 +207,7 @@ public class BookController {
 
         if (result.hasErrors()) {
             model.addAttribute("pageTitle", "Edit Book - Company Name");
-            this.populateAuthorsAndCategories(model);
+            this.populateFormChoices(model, book.getAuthorId());
             return "book/edit";
         }
 
@@ -147,7 +219,7 @@ public class BookController {
         } catch (Exception e) {
             model.addAttribute("book", book);
             model.addAttribute("errorMessage", "Error updating book: " + e.getMessage());
-            this.populateAuthorsAndCategories(model);
+            this.populateFormChoices(model, book.getAuthorId());
             return "book/edit/"; // Stay on the same page to show the error.
         }
     }
@@ -169,8 +241,19 @@ public class BookController {
         return "redirect:/books/list";
     }
 
-    private void populateAuthorsAndCategories(Model model) {
-        model.addAttribute("authors", authorService.getAllAuthors());
+    // Authors are picked through /books/autocomplete; the form only needs the current one's id
+    // and name (authorId/authorName), for the entity on the edit page as well as a rejected DTO
+    private void populateFormChoices(Model model, UUID authorId) {
+        String authorName = null;
+        if (authorId != null) {
+            try {
+                authorName = authorService.findAuthorById(authorId).getName();
+            } catch (IllegalArgumentException e) {
+                // Unknown id: leave the picker empty so the author has to be chosen again
+            }
+        }
+        model.addAttribute("authorId", authorName != null ? authorId : null);
+        model.addAttribute("authorName", authorName);
         model.addAttribute("categories", categoryService.getAllCategories());
     }
 }
@@ -0,0 +1,44 @@
+package bookstore.controller;
+
+import bookstore.dto.ApiPage;
+import bookstore.dto.CategorySummary;
+import bookstore.dto.CursorPage;
+import bookstore.service.CategoryService;
+import bookstore.util.SparseFieldset;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.UUID;
+
+// JSON API for categories, see BookApiController
+@RestController
+@RequestMapping("/api/v1/categories")
+public class CategoryApiController {
+
+    private final CategoryService categoryService;
+
+    @Autowired
+    public CategoryApiController(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @GetMapping
+    public ApiPage listCategories(@RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) String fields) {
+        SparseFieldset<CategorySummary> fieldset = ApiSupport.fieldset(CategorySummary.class, fields);
+        CursorPage<CategorySummary> page = categoryService.getCategoriesAfter(ApiSupport.cursor(cursor));
+        return new ApiPage(fieldset.apply(page.content()), page.nextCursor());
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> getCategory(@PathVariable UUID id, @RequestParam(required = false) String fields) {
+        SparseFieldset<CategorySummary> fieldset = ApiSupport.fieldset(CategorySummary.class, fields);
+        return fieldset.apply(CategorySummary.of(categoryService.findCategoryById(id)));
+    }
+}
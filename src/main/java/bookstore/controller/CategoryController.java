@@ -3,6 +3,8 @@ package bookstore.controller;
 import bookstore.service.CategoryService;
 import jakarta.validation.Valid;
 import bookstore.dto.CategoryDTO;
+import bookstore.dto.CategorySummary;
+import bookstore.dto.CursorPage;
 import bookstore.models.Category;
 
 import org.springframework.stereotype.Controller;
@@ -28,14 +30,29 @@ public class CategoryController {
     }
 
     @GetMapping("/list")
-    public String listCategories(Model model, @RequestParam(defaultValue = "1") int page) {
+    public String listCategories(Model model, @RequestParam(defaultValue = "1") int page,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "false") boolean withTotal) {
+        // Keyset mode: ?cursor= (first page) or ?cursor=<token>
+        if (cursor != null) {
+            CursorPage<CategorySummary> categoryPage = categoryService.getCategoriesAfter(cursor);
+            model.addAttribute("categories", categoryPage.content());
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", categoryPage.nextCursor());
+            if (withTotal) {
+                model.addAttribute("totalItems", categoryService.countCategories());
+            }
+            model.addAttribute("pageTitle", "Category List - Company name");
+            return "category/list";
+        }
+
         // Ensure the page is at least 1
         if (page < 1) {
             page = 1;
         }
 
         // Fetch paginated categories
-        Page<Category> categoryPage = categoryService.getPaginatedCategories(page);
+        Page<CategorySummary> categoryPage = categoryService.getPaginatedCategories(page);
 
         // Check if the requested page exceeds the total pages
         if (page > categoryPage.getTotalPages() && categoryPage.getTotalPages() > 0) {
@@ -0,0 +1,54 @@
+package bookstore.controller;
+
+import bookstore.dto.ImportReport;
+import bookstore.service.BookImportService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+// Bulk book imports (BookImportService). Posting a file that already has an unfinished
+// run resumes that run; the report lists per-row errors and can be fetched again later.
+@RestController
+@RequestMapping("/admin/imports")
+public class ImportController {
+
+    private final BookImportService importService;
+
+    @Autowired
+    public ImportController(BookImportService importService) {
+        this.importService = importService;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ImportReport importBooks(@RequestParam("file") MultipartFile file,
+                                    @RequestParam(required = false) Integer chunkSize) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The import file is empty");
+        }
+        try {
+            return importService.importBooks(file.getOriginalFilename(), file, chunkSize);
+        } catch (IllegalArgumentException e) {
+            // Unsupported format, bad header or chunk size: nothing was imported
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}")
+    public ImportReport getImport(@PathVariable UUID id) {
+        return importService.findJob(id);
+    }
+}
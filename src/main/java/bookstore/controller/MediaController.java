@@ -0,0 +1,190 @@
+package bookstore.controller;
+
+import bookstore.service.MediaStorageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves uploaded images from uploads/ with HTTP caching and byte ranges.
+ *
+ * Content-addressed blobs (and their derivatives) never change behind their URL, so they are
+ * sent with a one-year immutable Cache-Control and browsers stop asking for them at all. Older
+ * per-owner uploads get a short max-age. Every response carries a strong ETag (the content
+ * hash for blobs, size and mtime otherwise) and Last-Modified, so revalidation ends in a 304.
+ *
+ * A single "Range: bytes=..." is honoured (If-Range aware); multi-range requests get the whole
+ * file, which the spec allows. Bodies go out through Tomcat's sendfile when the connector
+ * supports it, and otherwise through FileChannel.transferTo, never through a heap buffer.
+ */
+@Controller
+public class MediaController {
+
+    private static final String UPLOADS_PREFIX = "/uploads/";
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl MUTABLE = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+
+    // Tomcat's sendfile request attributes (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this the syscall setup costs more than copying; same threshold as Tomcat's DefaultServlet
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private final MediaStorageService mediaStorageService;
+    private final Path uploadsRoot;
+
+    @Autowired
+    public MediaController(MediaStorageService mediaStorageService) {
+        this.mediaStorageService = mediaStorageService;
+        this.uploadsRoot = mediaStorageService.resolve(UPLOADS_PREFIX).toAbsolutePath().normalize();
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String url = UriUtils.decode(request.getRequestURI().substring(request.getContextPath().length()),
+                StandardCharsets.UTF_8);
+        Path file = resolve(url);
+        BasicFileAttributes attributes = file == null ? null : readAttributes(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(url, file, length, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (MediaStorageService.isBlob(url) ? IMMUTABLE : MUTABLE).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag/Last-Modified and answers 304 (or 412 for failed If-Match) by itself
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (!"HEAD".equals(request.getMethod()) && count > 0) {
+            send(request, response, file, start, count);
+        }
+    }
+
+    // Path under uploads/ for a request URL, or null for anything that would leave it or is hidden
+    private Path resolve(String url) {
+        if (!url.startsWith(UPLOADS_PREFIX) || url.contains("\\") || url.contains("/.")) {
+            return null;
+        }
+        Path file = mediaStorageService.resolve(url).toAbsolutePath().normalize();
+        return file.startsWith(uploadsRoot) ? file : null;
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // A blob's name is the SHA-256 of its bytes; anything else is identified by size and mtime
+    private static String etag(String url, Path file, long length, long lastModified) {
+        String name = file.getFileName().toString();
+        if (MediaStorageService.isBlob(url) && name.length() > 64 && name.charAt(64) == '.') {
+            // Derivatives share their original's hash, so the variant is part of the tag
+            return "\"" + name.substring(0, 64) + name.substring(64).replace('.', '-') + "\"";
+        }
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    // The requested range, or null to send the whole file (no/invalid/multiple ranges, stale If-Range)
+    private static HttpRange singleRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean matches = ifRange.startsWith("\"")
+                    ? ifRange.equals(etag)
+                    : request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+            if (!matches) {
+                return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                             long start, long count) throws IOException {
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file after the handler returns, straight from the page cache
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    // Truncated underneath us; the client sees a short body against Content-Length
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package bookstore.controller;
+
+import bookstore.config.PoolMetrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@RestController
+@RequestMapping("/admin/metrics")
+public class MetricsController {
+
+    private final CacheManager cacheManager;
+    private final ThreadPoolTaskExecutor mediaExecutor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PoolMetrics poolMetrics;
+
+    @Autowired
+    public MetricsController(CacheManager cacheManager, @Qualifier("mediaExecutor") ThreadPoolTaskExecutor mediaExecutor,
+                             EntityManagerFactory entityManagerFactory, PoolMetrics poolMetrics) {
+        this.cacheManager = cacheManager;
+        this.mediaExecutor = mediaExecutor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.poolMetrics = poolMetrics;
+    }
+
+    // Hit/miss/eviction counters for every cache region
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/caches")
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> result = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                Map<String, Object> region = new LinkedHashMap<>();
+                region.put("size", cache.getNativeCache().estimatedSize());
+                region.put("hits", stats.hitCount());
+                region.put("misses", stats.missCount());
+                region.put("hitRate", stats.hitRate());
+                region.put("evictions", stats.evictionCount());
+                region.put("evictionWeight", stats.evictionWeight());
+                result.put(name, region);
+            }
+        }
+        return result;
+    }
+
+    // Depth and throughput of the background image pipeline; a queue that stays near capacity
+    // means uploads are being processed on request threads (caller-runs back-pressure)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/media")
+    public Map<String, Object> mediaStats() {
+        ThreadPoolExecutor executor = mediaExecutor.getThreadPoolExecutor();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("poolSize", executor.getPoolSize());
+        result.put("activeThreads", executor.getActiveCount());
+        result.put("maxPoolSize", executor.getMaximumPoolSize());
+        result.put("queued", executor.getQueue().size());
+        result.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        result.put("completedTasks", executor.getCompletedTaskCount());
+        return result;
+    }
+
+    // Hibernate second-level and query cache counters per region, plus how many statements
+    // actually reached the database (all zero when bookstore.jpa.statistics=false)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/hibernate")
+    public Map<String, Object> hibernateStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("preparedStatements", statistics.getPrepareStatementCount());
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("queryExecutions", statistics.getQueryExecutionCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(name);
+            if (stats != null) {
+                Map<String, Object> region = new LinkedHashMap<>();
+                region.put("size", stats.getElementCountInMemory());
+                region.put("hits", stats.getHitCount());
+                region.put("misses", stats.getMissCount());
+                region.put("puts", stats.getPutCount());
+                regions.put(name, region);
+            }
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    // Per connection pool: active/idle/pending connections, the checkout wait histogram and
+    // hold times, overall and per owner (controller method or thread). High waits with short
+    // holds mean the pool is too small; long holds point at the owner's queries.
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/pool")
+    public Map<String, Object> poolStats() {
+        return poolMetrics.snapshot();
+    }
+}
@@ -0,0 +1,9 @@
+package bookstore.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of a /api/v1 collection: the (sparse) rows plus the cursor for the next page,
+// null on the last one. Pass it back as ?cursor= to continue.
+public record ApiPage(List<Map<String, Object>> data, String nextCursor) {
+}
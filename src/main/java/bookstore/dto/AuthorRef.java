@@ -0,0 +1,10 @@
+package bookstore.dto;
+
+import java.util.UUID;
+
+// Keys the bulk importer resolves an author column by: the email, or the name when unique
+public record AuthorRef(
+        UUID id,
+        String name,
+        String email) {
+}
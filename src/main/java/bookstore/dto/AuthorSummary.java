@@ -0,0 +1,20 @@
+package bookstore.dto;
+
+import bookstore.models.Author;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Read-only row for author listings, see BookSummary
+public record AuthorSummary(
+        UUID id,
+        String name,
+        String gender,
+        String imageUrl,
+        Date createdAt) {
+
+    public static AuthorSummary of(Author author) {
+        return new AuthorSummary(author.getId(), author.getName(), author.getGender(), author.getImageUrl(),
+                author.getCreatedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package bookstore.dto;
+
+import java.util.StringJoiner;
+import java.util.UUID;
+
+// Facet selection on /books/list; a null id means "any"
+public record BookFilter(UUID categoryId, UUID authorId, boolean availableOnly) {
+
+    public static final BookFilter NONE = new BookFilter(null, null, false);
+
+    public boolean isEmpty() {
+        return categoryId == null && authorId == null && !availableOnly;
+    }
+
+    public BookFilter withCategory(UUID categoryId) {
+        return new BookFilter(categoryId, authorId, availableOnly);
+    }
+
+    public BookFilter withAuthor(UUID authorId) {
+        return new BookFilter(categoryId, authorId, availableOnly);
+    }
+
+    public BookFilter withAvailableOnly(boolean availableOnly) {
+        return new BookFilter(categoryId, authorId, availableOnly);
+    }
+
+    // Query string for links that keep the current selection, e.g. "category=...&available=true"
+    public String toQuery() {
+        StringJoiner query = new StringJoiner("&");
+        if (categoryId != null) {
+            query.add("category=" + categoryId);
+        }
+        if (authorId != null) {
+            query.add("author=" + authorId);
+        }
+        if (availableOnly) {
+            query.add("available=true");
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package bookstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// One book of an import file, as read: nothing is validated or resolved yet.
+// author is an author's email or (unique) name, category a category name.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BookImportRow(
+        String title,
+        String isbn,
+        String author,
+        String category,
+        String description,
+        @JsonAlias("published_date") String publishedDate) {
+}
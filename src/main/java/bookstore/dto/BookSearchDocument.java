@@ -0,0 +1,35 @@
+package bookstore.dto;
+
+import bookstore.models.Book;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Everything the search index tokenizes for one book, plus what it needs to render a hit
+public record BookSearchDocument(
+        UUID id,
+        String title,
+        String description,
+        String isbn,
+        String imageUrl,
+        boolean borrowed,
+        UUID authorId,
+        String authorName,
+        UUID categoryId,
+        String categoryName,
+        Date createdAt) {
+
+    public static BookSearchDocument of(Book book) {
+        return new BookSearchDocument(book.getId(), book.getTitle(), book.getDescription(), book.getIsbn(),
+                book.getImageUrl(), book.isBorrowed(),
+                book.getAuthor() != null ? book.getAuthor().getId() : null,
+                book.getAuthor() != null ? book.getAuthor().getName() : null,
+                book.getCategory() != null ? book.getCategory().getId() : null,
+                book.getCategory() != null ? book.getCategory().getName() : null,
+                book.getCreatedAt());
+    }
+
+    public BookSummary toSummary() {
+        return new BookSummary(id, title, isbn, imageUrl, borrowed, authorId, authorName, categoryId, categoryName, createdAt);
+    }
+}
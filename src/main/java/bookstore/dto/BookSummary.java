@@ -0,0 +1,25 @@
+package bookstore.dto;
+
+import bookstore.models.Book;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Read-only row for book listings: just the columns the list template renders,
+// selected with a constructor expression so no managed entity graph is cached
+public record BookSummary(
+        UUID id,
+        String title,
+        String isbn,
+        String imageUrl,
+        boolean borrowed,
+        UUID authorId,
+        String authorName,
+        UUID categoryId,
+        String categoryName,
+        Date createdAt) {
+
+    public static BookSummary of(Book book) {
+        return BookSearchDocument.of(book).toSummary();
+    }
+}
@@ -0,0 +1,17 @@
+package bookstore.dto;
+
+import bookstore.models.Category;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Read-only row for category listings, see BookSummary
+public record CategorySummary(
+        UUID id,
+        String name,
+        Date createdAt) {
+
+    public static CategorySummary of(Category category) {
+        return new CategorySummary(category.getId(), category.getName(), category.getCreatedAt());
+    }
+}
@@ -0,0 +1,24 @@
+package bookstore.dto;
+
+import bookstore.util.CursorToken;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page: the rows plus the token for the next page (null on the last page).
+// No total count is carried, callers that need one ask the service separately.
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    // Repositories are asked for pageSize + 1 rows; the extra row only tells us a next page exists
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, Function<T, CursorToken> sortKey) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(List.copyOf(rows), null);
+        }
+        List<T> content = List.copyOf(rows.subList(0, pageSize));
+        return new CursorPage<>(content, sortKey.apply(content.get(pageSize - 1)).encode());
+    }
+}
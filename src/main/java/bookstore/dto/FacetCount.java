@@ -0,0 +1,7 @@
+package bookstore.dto;
+
+import java.util.UUID;
+
+// One facet value (a category or an author) and how many books match it
+public record FacetCount(UUID id, String name, int count) {
+}
@@ -0,0 +1,8 @@
+package bookstore.dto;
+
+import java.util.List;
+
+// Counts for every facet. Each facet is counted under the other facets' selections but not
+// its own, so switching category shows how many books each alternative would give.
+public record FacetCounts(List<FacetCount> categories, List<FacetCount> authors, int available, int borrowed) {
+}
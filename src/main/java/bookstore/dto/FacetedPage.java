@@ -0,0 +1,7 @@
+package bookstore.dto;
+
+import java.util.List;
+
+// A page of books matching a BookFilter together with the facet counts for the sidebar
+public record FacetedPage(List<BookSummary> books, int page, int totalPages, int totalItems, FacetCounts facets) {
+}
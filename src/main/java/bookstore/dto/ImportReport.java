@@ -0,0 +1,31 @@
+package bookstore.dto;
+
+import bookstore.models.ImportJob;
+import bookstore.models.ImportStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+// Outcome of a bulk import run; errors holds the first ImportJob.MAX_REPORTED_ERRORS rejected rows
+public record ImportReport(
+        UUID id,
+        String fileName,
+        ImportStatus status,
+        int chunkSize,
+        long rowsProcessed,
+        long rowsImported,
+        long rowsRejected,
+        String failureMessage,
+        List<RowError> errors) {
+
+    public record RowError(long row, String message) {}
+
+    // Must run while the job's errors can still be loaded
+    public static ImportReport of(ImportJob job) {
+        List<RowError> errors = job.getErrors().stream()
+                .map(error -> new RowError(error.getRow(), error.getMessage()))
+                .toList();
+        return new ImportReport(job.getId(), job.getFileName(), job.getStatus(), job.getChunkSize(),
+                job.getRowsProcessed(), job.getRowsImported(), job.getRowsRejected(), job.getFailureMessage(), errors);
+    }
+}
@@ -0,0 +1,13 @@
+package bookstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.UUID;
+
+// One autocomplete entry: a book title or an author name. The weight only orders
+// suggestions (authors by how many books they have) and is not sent to the browser.
+public record Suggestion(String type, UUID id, String label, @JsonIgnore long weight) {
+
+    public static final String BOOK = "book";
+    public static final String AUTHOR = "author";
+}
@@ -11,9 +11,9 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", indexes = @Index(name = "idx_authors_created_at_id", columnList = "created_at, id"))
 public class Author {
-    @Id @GeneratedValue(strategy = GenerationType.AUTO)
+    @Id @TimeOrderedUuid
     @Column(nullable = false)
     private UUID id;
 
@@ -31,6 +31,9 @@ public class Author {
 
     @Column(nullable = true)
     private String imageUrl; // URL to the author's image
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", length = 16)
+    private ImageStatus imageStatus;
 
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Book> books = new ArrayList<>();
@@ -85,6 +88,14 @@ public class Author {
         this.imageUrl = imageUrl;
     }
 
+    public ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+
+    public void setImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
     public List<Book> getBooks() {
         return books;
     }
@@ -93,6 +104,10 @@ public class Author {
         this.books = books;
     }
 
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
     public String getGender() {
         return gender;
     }
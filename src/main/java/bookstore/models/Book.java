@@ -9,9 +9,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_book_created_at_id", columnList = "created_at, id"))
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -20,6 +21,9 @@ public class Book {
     private String isbn;
     private boolean isBorrowed = false;
     private String imageUrl;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "image_status", length = 16)
+    private ImageStatus imageStatus;
     private Date publishedDate = null;
     private String description;
     @CreationTimestamp
@@ -29,10 +33,12 @@ public class Book {
     @Column(name = "updated_at")
     private Date updatedAt;
 
-    @ManyToOne
+    // Lazy so a plain select never drags in author/category row by row; the listing and
+    // finder queries in BookRepository fetch both in the same statement with an entity graph
+    @ManyToOne(fetch = FetchType.LAZY)
     private Author author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Category category;
 
     @Transient
@@ -82,6 +88,14 @@ public class Book {
         this.imageUrl = imageUrl;
     }
 
+    public ImageStatus getImageStatus() {
+        return imageStatus;
+    }
+
+    public void setImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
     public Date getPublishedDate() {
         return publishedDate;
     }
@@ -98,6 +112,10 @@ public class Book {
         this.description = description;
     }
 
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
     public Author getAuthor() {
         return author;
     }
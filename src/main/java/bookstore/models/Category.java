@@ -3,6 +3,8 @@ package bookstore.models;
 import jakarta.persistence.*;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,8 +12,11 @@ import java.util.Date;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "idx_category_created_at_id", columnList = "created_at, id"))
+// Reference data: loaded on every book write, rarely changed (second-level cache, see JpaConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
-    @Id @GeneratedValue(strategy = GenerationType.AUTO)
+    @Id @TimeOrderedUuid
     private UUID id;
     private String name;
     @CreationTimestamp
@@ -41,6 +46,10 @@ public class Category {
         this.name = name;
     }
 
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
     public Set<Book> getBooks() {
         return books;
     }
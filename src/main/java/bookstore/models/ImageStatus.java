@@ -0,0 +1,10 @@
+package bookstore.models;
+
+// Lifecycle of an uploaded cover/portrait: the upload is accepted as PENDING and the
+// background media pipeline moves it to READY (imageUrl set) or FAILED.
+// Rows that never had an upload have no status.
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,138 @@
+package bookstore.models;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// One run of the bulk book importer (BookImportService). rowsProcessed is the checkpoint:
+// it is saved in the same transaction as each chunk's inserts, so after a failure exactly
+// the rows of committed chunks are skipped when the same file (by checksum) is imported again.
+@Entity
+@Table(name = "import_jobs", indexes = @Index(name = "idx_import_jobs_checksum", columnList = "checksum"))
+public class ImportJob {
+    // Only the first rejected rows are kept; the counters still cover every row
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    // SHA-256 of the file content
+    @Column(nullable = false, length = 64)
+    private String checksum;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportStatus status = ImportStatus.RUNNING;
+
+    private int chunkSize;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsRejected;
+    @Column(length = ImportRowError.MAX_MESSAGE_LENGTH)
+    private String failureMessage;
+
+    // Ordered so that appending a chunk's errors inserts rows instead of rewriting the collection
+    @ElementCollection
+    @CollectionTable(name = "import_job_errors", joinColumns = @JoinColumn(name = "job_id"))
+    @OrderColumn(name = "error_order")
+    private List<ImportRowError> errors = new ArrayList<>();
+
+    @CreationTimestamp
+    @Column(updatable = false, name = "created_at")
+    private Date createdAt;
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    public ImportJob() {}
+
+    public ImportJob(String fileName, String checksum, int chunkSize) {
+        this.fileName = fileName;
+        this.checksum = checksum;
+        this.chunkSize = chunkSize;
+    }
+
+    // Counts a committed chunk and keeps its errors up to MAX_REPORTED_ERRORS
+    public void chunkCommitted(int rows, int imported, List<ImportRowError> rejected) {
+        rowsProcessed += rows;
+        rowsImported += imported;
+        rowsRejected += rejected.size();
+        for (ImportRowError error : rejected) {
+            if (errors.size() >= MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public ImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportStatus status) {
+        this.status = status;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = ImportRowError.abbreviate(failureMessage);
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package bookstore.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+// A rejected row of an import file, by 1-based data row (the CSV header is not counted)
+@Embeddable
+public class ImportRowError {
+
+    // import_job_errors.message and import_jobs.failure_message are varchar(255)
+    public static final int MAX_MESSAGE_LENGTH = 255;
+
+    @Column(name = "row_index", nullable = false)
+    private long row;
+
+    @Column(nullable = false, length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    public ImportRowError() {}
+
+    public ImportRowError(long row, String message) {
+        this.row = row;
+        this.message = abbreviate(message);
+    }
+
+    // Messages quote the offending value, which may be as long as the column itself
+    static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
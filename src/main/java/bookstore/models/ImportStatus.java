@@ -0,0 +1,10 @@
+package bookstore.models;
+
+// Lifecycle of a bulk import (ImportJob): RUNNING while chunks are being committed, then
+// COMPLETED, or FAILED with the job's checkpoint left at the last committed chunk.
+// Re-importing the same file resumes a RUNNING or FAILED job from that checkpoint.
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
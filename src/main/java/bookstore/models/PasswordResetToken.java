@@ -8,7 +8,7 @@ import java.util.UUID;
 @Table(name = "password_reset_tokens")
 public class PasswordResetToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     private String token;
@@ -23,7 +23,7 @@ import lombok.*;
 @Table(name = "users")
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
     @Column(unique = true, nullable = false)
     private String email;
@@ -1,8 +1,17 @@
 package bookstore.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import bookstore.dto.AuthorRef;
+import bookstore.dto.AuthorSummary;
+import bookstore.dto.Suggestion;
 import bookstore.models.Author;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -10,4 +19,33 @@ public interface AuthorRepository extends JpaRepository<Author, UUID> {
     // Find author by name
     Author findByName(String name);
     boolean existsByEmail(String email);
+
+    // Listing projections, see BookRepository
+    String SUMMARY_SELECT = "select new bookstore.dto.AuthorSummary(a.id, a.name, a.gender, a.imageUrl, a.createdAt) " +
+            "from Author a ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(a) from Author a")
+    Page<AuthorSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "order by a.createdAt desc, a.id desc")
+    List<AuthorSummary> findFirstSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where a.createdAt <= :createdAt and (a.createdAt < :createdAt or a.id < :id) " +
+           "order by a.createdAt desc, a.id desc")
+    List<AuthorSummary> findSummaryPageAfter(@Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Lookup keys for the bulk importer (BookImportService)
+    @Query("select new bookstore.dto.AuthorRef(a.id, a.name, a.email) from Author a")
+    List<AuthorRef> findAllRefs();
+
+    // Source rows for the author autocomplete, weighted by how many books each author has
+    @Query("select new bookstore.dto.Suggestion('author', a.id, a.name, count(b)) " +
+           "from Author a left join a.books b group by a.id, a.name")
+    List<Suggestion> findNameSuggestions();
+
+    // Image blob references, see BookRepository
+    long countByImageUrl(String imageUrl);
+
+    @Query("select distinct a.imageUrl from Author a where a.imageUrl is not null")
+    List<String> findImageUrls();
 }
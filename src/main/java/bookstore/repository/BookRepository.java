@@ -1,23 +1,115 @@
 package bookstore.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.BookSummary;
+import bookstore.dto.Suggestion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import bookstore.models.Book;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, UUID> {
+    // Every query whose books are rendered fetches author and category in the same
+    // select (left join) instead of one extra select per row
+    @Override
+    @EntityGraph(attributePaths = {"author", "category"})
+    Page<Book> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "category"})
+    List<Book> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"author", "category"})
+    Optional<Book> findById(UUID id);
+
     // Find books by author ID
+    @EntityGraph(attributePaths = {"author", "category"})
     List<Book> findByAuthor_Id(UUID authorId);
 
     // Find books by category ID
+    @EntityGraph(attributePaths = {"author", "category"})
     List<Book> findByCategory_Id(UUID categoryId);
 
-    // Find books by title containing a keyword (for search functionality)
-    List<Book> findByTitleContaining(String keyword);
-
     // Find books by ISBN
+    @EntityGraph(attributePaths = {"author", "category"})
     Book findByIsbn(String isbn);
     boolean existsByTitle(String title);
+
+    // Uniqueness sets preloaded by the bulk importer instead of an existsBy query per row
+    @Query("select b.title from Book b")
+    List<String> findAllTitles();
+
+    @Query("select b.isbn from Book b")
+    List<String> findAllIsbns();
+
+    // Listing projections: only the columns the list template renders, author and category
+    // names come from the join instead of managed entities
+    String SUMMARY_SELECT = "select new bookstore.dto.BookSummary(b.id, b.title, b.isbn, b.imageUrl, b.isBorrowed, " +
+            "a.id, a.name, c.id, c.name, b.createdAt) from Book b left join b.author a left join b.category c ";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(b) from Book b")
+    Page<BookSummary> findSummaries(Pageable pageable);
+
+    // Keyset pagination on (createdAt, id): only the page size is passed in the Pageable,
+    // returning a List means no count query is issued
+    @Query(SUMMARY_SELECT + "order by b.createdAt desc, b.id desc")
+    List<BookSummary> findFirstSummaryPage(Pageable pageable);
+
+    // The leading createdAt <= bound is what lets the (created_at, id) index seek; the rest
+    // is the same "strictly after the cursor" test as (createdAt, id) < (:createdAt, :id)
+    @Query(SUMMARY_SELECT + "where b.createdAt <= :createdAt and (b.createdAt < :createdAt or b.id < :id) " +
+           "order by b.createdAt desc, b.id desc")
+    List<BookSummary> findSummaryPageAfter(@Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Source rows for the in-memory search index (BookSearchService)
+    String SEARCH_SELECT = "select new bookstore.dto.BookSearchDocument(b.id, b.title, b.description, b.isbn, " +
+            "b.imageUrl, b.isBorrowed, a.id, a.name, c.id, c.name, b.createdAt) " +
+            "from Book b left join b.author a left join b.category c ";
+
+    // Streamed inside a read-only transaction; the projection keeps the persistence context empty
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SEARCH_SELECT)
+    Stream<BookSearchDocument> streamSearchDocuments();
+
+    // Filter on the book's own foreign key, not the joined row, so idx_book_author_id applies
+    @Query(SEARCH_SELECT + "where b.author.id = :authorId")
+    List<BookSearchDocument> findSearchDocumentsByAuthorId(@Param("authorId") UUID authorId);
+
+    @Query(SEARCH_SELECT + "where b.category.id = :categoryId")
+    List<BookSearchDocument> findSearchDocumentsByCategoryId(@Param("categoryId") UUID categoryId);
+
+    // Source rows for the title autocomplete (AutocompleteService)
+    @Query("select new bookstore.dto.Suggestion('book', b.id, b.title, 1L) from Book b")
+    List<Suggestion> findTitleSuggestions();
+
+    // Source rows for the facet index (FacetService) and exports (CatalogueExportService), oldest
+    // first so ordinals follow creation order. Read through a forward-only cursor, 1000 rows per
+    // round trip; MySQL only honours the fetch size with useCursorFetch=true on the JDBC URL.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY_SELECT + "order by b.createdAt asc, b.id asc")
+    Stream<BookSummary> streamSummariesOldestFirst();
+
+    @Query(SUMMARY_SELECT + "where b.id in :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Reference counts for shared image blobs (MediaGarbageCollector)
+    long countByImageUrl(String imageUrl);
+
+    @Query("select distinct b.imageUrl from Book b where b.imageUrl is not null")
+    List<String> findImageUrls();
 }
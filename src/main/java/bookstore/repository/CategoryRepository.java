@@ -1,9 +1,20 @@
 package bookstore.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import bookstore.dto.CategorySummary;
 import bookstore.models.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,6 +22,34 @@ import java.util.UUID;
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     // Find category by name
     // Category findByName(String name);
+    // Served from the query cache, see RoleRepository.findByName; findById hits the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByName(String name);
+
+    // The category dropdowns of the book forms
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
     boolean existsByName(String name);
+
+    @Query("select c.name from Category c where c.name in :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    // Listing projections, see BookRepository
+    String SUMMARY_SELECT = "select new bookstore.dto.CategorySummary(c.id, c.name, c.createdAt) from Category c ";
+
+    // Lookup rows for the bulk importer (BookImportService)
+    @Query(SUMMARY_SELECT)
+    List<CategorySummary> findAllSummaries();
+
+    @Query(value = SUMMARY_SELECT, countQuery = "select count(c) from Category c")
+    Page<CategorySummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "order by c.createdAt desc, c.id desc")
+    List<CategorySummary> findFirstSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id) " +
+           "order by c.createdAt desc, c.id desc")
+    List<CategorySummary> findSummaryPageAfter(@Param("createdAt") Date createdAt, @Param("id") UUID id, Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package bookstore.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import bookstore.models.ImportJob;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+    // Latest run of a file, to resume it when it did not complete
+    Optional<ImportJob> findFirstByChecksumOrderByCreatedAtDesc(String checksum);
+
+    // The report renders the rejected rows
+    @EntityGraph(attributePaths = "errors")
+    Optional<ImportJob> findWithErrorsById(UUID id);
+}
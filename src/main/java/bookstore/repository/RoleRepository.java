@@ -1,12 +1,17 @@
 package bookstore.repository;
 
 import bookstore.models.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.UUID;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, UUID> {
+    // Served from the query cache; Hibernate drops the cached result when the roles table is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
     boolean existsByName(String name);
 }
@@ -1,20 +1,24 @@
 package bookstore.service;
 
 import bookstore.dto.AuthorDTO;
+import bookstore.dto.AuthorSummary;
+import bookstore.dto.CursorPage;
 import bookstore.dto.UpdateAuthorDTO;
 import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.ImageStatus;
 import bookstore.repository.AuthorRepository;
+import bookstore.util.CursorToken;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,47 +26,99 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.Valid;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
-    private static final String UPLOAD_DIR = "uploads/authors";
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final BookSearchService searchService;
+    private final AutocompleteService autocompleteService;
+    private final FacetService facetService;
+    private final MediaStorageService mediaStorageService;
+    private final MediaGarbageCollector garbageCollector;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final int PAGE_SIZE = 20;
 
     @Autowired
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, CatalogueCacheInvalidator cacheInvalidator,
+                         BookSearchService searchService, AutocompleteService autocompleteService,
+                         FacetService facetService, MediaStorageService mediaStorageService,
+                         MediaGarbageCollector garbageCollector, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+        this.facetService = facetService;
+        this.mediaStorageService = mediaStorageService;
+        this.garbageCollector = garbageCollector;
+        this.eventPublisher = eventPublisher;
     }
 
     // Cache paginated authors by page number
     @Cacheable(value = "authors", key = "'page_' + #page") // Cache paginated results
-    public Page<Author> getPaginatedAuthors(int page) {
-        int pageSize = 20; // Define page size
-        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return authorRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<AuthorSummary> getPaginatedAuthors(int page) {
+        Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<AuthorSummary> authors = authorRepository.findSummaries(pageable);
+        cacheInvalidator.registerPage("authors", page, authors, authorTags(authors.getContent()));
+        return authors;
+    }
+
+    // Keyset page following the cursor (blank = first page), see BookService#getBooksAfter
+    @Cacheable(value = "authors", key = "T(bookstore.service.CatalogueCacheInvalidator).cursorKey(#cursor)")
+    @Transactional(readOnly = true)
+    public CursorPage<AuthorSummary> getAuthorsAfter(String cursor) {
+        Pageable limit = PageRequest.ofSize(PAGE_SIZE + 1);
+        List<AuthorSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = authorRepository.findFirstSummaryPage(limit);
+        } else {
+            CursorToken after = CursorToken.decode(cursor);
+            rows = authorRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit);
+        }
+        CursorPage<AuthorSummary> authors = CursorPage.of(rows, PAGE_SIZE, author -> new CursorToken(author.createdAt(), author.id()));
+        cacheInvalidator.register("authors", CatalogueCacheInvalidator.cursorKey(cursor), authors, authorTags(authors.content()));
+        return authors;
+    }
+
+    @Transactional(readOnly = true)
+    public long countAuthors() {
+        return authorRepository.count();
+    }
+
+    private static Set<String> authorTags(List<AuthorSummary> authors) {
+        return authors.stream()
+                .map(author -> CatalogueCacheInvalidator.tag("author", author.id()))
+                .collect(Collectors.toSet());
     }
 
     // Cache the list of all authors
     @Cacheable(value = "authors", key = "'all'")
+    @Transactional(readOnly = true)
     public List<Author> getAllAuthors() {
         return authorRepository.findAll();
     }
 
     // Cache individual author by ID
     @Cacheable(value = "authors", key = "#id")
+    @Transactional(readOnly = true)
     public Author findAuthorById(UUID id) {
+        return loadAuthor(id);
+    }
+
+    // For writes: a self-invoked findAuthorById would skip the cache anyway
+    private Author loadAuthor(UUID id) {
         return authorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid author ID"));
     }
 
-    // Clear all authors cache on create
+    // Newest-first listing: a new author shifts every cached page
     @Transactional
-    @CacheEvict(value = "authors", allEntries = true) // Clear paginated caches
     @CachePut(value = "authors", key = "#result.id") 
     public Author createAuthor(@Valid AuthorDTO authorDTO, MultipartFile file) {
         if (authorRepository.existsByEmail(authorDTO.getEmail())) {
@@ -76,35 +132,33 @@ public class AuthorService {
             if (file != null && !file.isEmpty()) {
                 this.uploadAuthorImage(savedAuthor.getId(), file);
             }
+            cacheInvalidator.rowAdded("authors");
+            autocompleteService.invalidate();
             return savedAuthor;
         } catch (DataAccessException | IOException e) {
             throw new RuntimeException("Error creating author: " + e.getMessage());
         }
     }
 
-    @Async
+    // Stages the upload on the request thread and marks the author PENDING, see BookService#uploadBookImage
     public void uploadAuthorImage(UUID authorId, MultipartFile file) throws IOException {
         Author author = authorRepository.findById(authorId)
                 .orElseThrow(() -> new IllegalArgumentException("Author not found"));
 
-        String fileName = authorId.toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(UPLOAD_DIR, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-
-        // Set the relative URL for the image
-        author.setImageUrl("/" + UPLOAD_DIR + "/" + fileName);
+        MediaStorageService.StagedUpload staged = mediaStorageService.stage(file);
+        author.setImageStatus(ImageStatus.PENDING);
         authorRepository.save(author);
+        eventPublisher.publishEvent(new ImageUploadedEvent(ImageUploadedEvent.Owner.AUTHOR, authorId, staged, author.getImageUrl()));
     }
 
     // Update author and refresh cache
     // @Transactional
     // @CacheEvict(value = "authors", allEntries = true) // Clear related caches
     // @CachePut(value = "authors", key = "#id")
+    // Evicts the author, the 'all' list and the author/book pages that render this author
     @Transactional
-    @CacheEvict(value = "authors", allEntries = true)
     public Author updateAuthor(UUID id, @Valid UpdateAuthorDTO authorDTO, MultipartFile file) {
-        Author author = findAuthorById(id);
+        Author author = loadAuthor(id);
 
         try {
             // Update fields
@@ -113,52 +167,42 @@ public class AuthorService {
             author.setBiography(authorDTO.getBiography());
             author.setGender(authorDTO.getGender());
 
-            // Handle image update
+            // Handle image update; the old image is removed once the new one is in place
             if (file != null && !file.isEmpty()) {
-                // Delete old image if it exists
-                if (author.getImageUrl() != null) {
-                    String relativePath = author.getImageUrl().startsWith("/") 
-                                    ? author.getImageUrl().substring(1) 
-                                    : author.getImageUrl();
-                
-                    Path imagePath = Paths.get(relativePath);
-                    Files.deleteIfExists(imagePath);
-                }
-
-                // Upload new image
                 uploadAuthorImage(id, file);
             }
 
-            return authorRepository.save(author);
+            Author savedAuthor = authorRepository.save(author);
+            cacheInvalidator.rowUpdated("authors", id, CatalogueCacheInvalidator.tag("author", id));
+            // Books are indexed under their author's name
+            searchService.reindexAuthor(id);
+            autocompleteService.invalidate();
+            facetService.renameAuthor(id, savedAuthor.getName());
+            return savedAuthor;
         } catch (DataAccessException | IOException e) {
             throw new RuntimeException("Error updating author: " + e.getMessage());
         }
     }
 
-    // Clear specific author from cache and evict paginated/all cache
+    // Evict the author and the pages from its position onwards; its books are removed by cascade
     @Transactional
-    @CacheEvict(value = "authors", allEntries = true)
     public void deleteAuthor(UUID id) {
-        Author author = findAuthorById(id);
-
-        if (author.getImageUrl() != null) {
-            try {
-                // Normalize the path by removing leading slash if present
-                String relativePath = author.getImageUrl().startsWith("/") 
-                                    ? author.getImageUrl().substring(1) 
-                                    : author.getImageUrl();
-                
-                Path imagePath = Paths.get(relativePath); // Create Path from normalized string
-                if (Files.exists(imagePath)) {
-                    Files.delete(imagePath); // Delete the file if it exists
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Error deleting author's image: " + e.getMessage());
-            }
-        }
+        Author author = loadAuthor(id);
+
+        // Images may be shared; each is deleted after commit once nothing refers to it
+        garbageCollector.release(author.getImageUrl());
+        author.getBooks().forEach(book -> garbageCollector.release(book.getImageUrl()));
 
         try {
             authorRepository.delete(author);
+            cacheInvalidator.rowRemoved("authors", id, CatalogueCacheInvalidator.tag("author", id));
+            autocompleteService.invalidate();
+            if (!author.getBooks().isEmpty()) {
+                cacheInvalidator.clear("books");
+                List<UUID> bookIds = author.getBooks().stream().map(Book::getId).toList();
+                searchService.removeAll(bookIds);
+                facetService.removeAll(bookIds);
+            }
         } catch (DataAccessException e) {
             throw new RuntimeException("Error deleting author: " + e.getMessage());
         }
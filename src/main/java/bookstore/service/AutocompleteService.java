@@ -0,0 +1,310 @@
+package bookstore.service;
+
+import bookstore.dto.Suggestion;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+import bookstore.util.TransactionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix suggestions for book titles and author names.
+ *
+ * Labels are normalized like search terms and inserted from each of their first few word
+ * starts, so "gu" finds "Ursula K. Le Guin". Keys live in a radix trie (edges carry whole
+ * character runs, so there are at most twice as many nodes as keys) and every node stores
+ * the best TOP_K entries of its subtree: a lookup walks the prefix and returns that list
+ * without visiting the subtree.
+ *
+ * The trie is immutable and swapped in whole. Catalogue writes mark it stale and queue a
+ * rebuild on a thread of its own, so neither the writing request nor the next lookup pays for
+ * the full-table reads; lookups keep using the previous trie until the new one is swapped in.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+
+    public static final int TOP_K = 10;
+    private static final int MAX_WORD_STARTS = 4;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::weight).reversed()
+            .thenComparingInt(suggestion -> suggestion.label().length())
+            .thenComparing(Suggestion::label, String.CASE_INSENSITIVE_ORDER);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final Executor rebuildExecutor;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Node.EMPTY, Node.EMPTY);
+    private volatile boolean built;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public AutocompleteService(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this(bookRepository, authorRepository, rebuildThread());
+    }
+
+    AutocompleteService(BookRepository bookRepository, AuthorRepository authorRepository, Executor rebuildExecutor) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    // One thread, one waiting task: rebuildQueued lets only one rebuild wait, so the queue never
+    // overflows, and if it ever did the task would be dropped rather than run by the writer
+    private static ExecutorService rebuildThread() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), task -> {
+            Thread thread = new Thread(task, "autocomplete-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshIfStale();
+    }
+
+    // type is Suggestion.BOOK, Suggestion.AUTHOR or null for both
+    public List<Suggestion> suggest(String prefix, String type, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        if (!built) {
+            // Only before the first build (lookups ahead of warmUp); later rebuilds are queued
+            refreshIfStale();
+        }
+
+        Snapshot current = snapshot;
+        int[] ranks;
+        if (Suggestion.AUTHOR.equals(type)) {
+            ranks = current.authors().lookup(key);
+        } else if (Suggestion.BOOK.equals(type)) {
+            ranks = current.titles().lookup(key);
+        } else {
+            ranks = Node.best(List.of(current.authors().lookup(key), current.titles().lookup(key)));
+        }
+
+        int k = Math.min(Math.max(limit, 1), Math.min(TOP_K, ranks.length));
+        List<Suggestion> suggestions = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            suggestions.add(current.entries().get(ranks[i]));
+        }
+        return suggestions;
+    }
+
+    // Book titles and author names changed; once the surrounding transaction commits a rebuild is
+    // queued, unless one is already waiting to run
+    public void invalidate() {
+        TransactionUtil.afterCommit(() -> {
+            stale.set(true);
+            if (rebuildQueued.compareAndSet(false, true)) {
+                rebuildExecutor.execute(this::runQueuedRebuild);
+            }
+        });
+    }
+
+    private void runQueuedRebuild() {
+        // Cleared first, so a write that commits during the rebuild queues another one
+        rebuildQueued.set(false);
+        try {
+            refreshIfStale();
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild the autocomplete index, keeping the previous one", e);
+        }
+    }
+
+    private void refreshIfStale() {
+        rebuildLock.lock();
+        try {
+            // Cleared before reading, so a write that commits during the rebuild marks it stale again
+            if (stale.getAndSet(false)) {
+                long start = System.nanoTime();
+                snapshot = build(authorRepository.findNameSuggestions(), bookRepository.findTitleSuggestions());
+                built = true;
+                logger.info("Built autocomplete index over {} entries in {} ms",
+                        snapshot.entries().size(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (RuntimeException e) {
+            stale.set(true);
+            throw e;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    static Snapshot build(List<Suggestion> authors, List<Suggestion> titles) {
+        // Entries are numbered in ranking order, so "better" is simply "lower rank"
+        List<Suggestion> entries = new ArrayList<>(authors.size() + titles.size());
+        entries.addAll(authors);
+        entries.addAll(titles);
+        entries.sort(RANKING);
+
+        List<Key> authorKeys = new ArrayList<>();
+        List<Key> titleKeys = new ArrayList<>();
+        for (int rank = 0; rank < entries.size(); rank++) {
+            Suggestion entry = entries.get(rank);
+            addKeys(Suggestion.AUTHOR.equals(entry.type()) ? authorKeys : titleKeys, entry.label(), rank);
+        }
+        return new Snapshot(List.copyOf(entries), Node.build(authorKeys), Node.build(titleKeys));
+    }
+
+    private static void addKeys(List<Key> keys, String label, int rank) {
+        String key = normalize(label);
+        int starts = 0;
+        for (int at = 0; at < key.length() && starts < MAX_WORD_STARTS; at++) {
+            if (at == 0 || key.charAt(at - 1) == ' ') {
+                keys.add(new Key(key.substring(at), rank));
+                starts++;
+            }
+        }
+    }
+
+    // Same folding as the search index, with words joined by single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return String.join(" ", NON_ALPHANUMERIC.split(BookSearchService.normalize(text).strip())).strip();
+    }
+
+    record Snapshot(List<Suggestion> entries, Node authors, Node titles) {}
+
+    private record Key(String text, int rank) {}
+
+    // Radix trie node: children sorted by the first character of their edge
+    static final class Node {
+
+        static final Node EMPTY = new Node(new char[0], new String[0], new Node[0], new int[0]);
+
+        private final char[] firstChars;
+        private final String[] edges;
+        private final Node[] children;
+        // Ranks of the best TOP_K entries under this node, ascending
+        private final int[] top;
+
+        private Node(char[] firstChars, String[] edges, Node[] children, int[] top) {
+            this.firstChars = firstChars;
+            this.edges = edges;
+            this.children = children;
+            this.top = top;
+        }
+
+        int[] lookup(String prefix) {
+            Node node = this;
+            int at = 0;
+            while (at < prefix.length()) {
+                int child = Arrays.binarySearch(node.firstChars, prefix.charAt(at));
+                if (child < 0) {
+                    return new int[0];
+                }
+                String edge = node.edges[child];
+                int remaining = prefix.length() - at;
+                if (remaining <= edge.length()) {
+                    // The prefix ends on this edge: everything below the child matches
+                    return edge.startsWith(prefix.substring(at)) ? node.children[child].top : new int[0];
+                }
+                if (!prefix.startsWith(edge, at)) {
+                    return new int[0];
+                }
+                at += edge.length();
+                node = node.children[child];
+            }
+            return node.top;
+        }
+
+        static Node build(List<Key> keys) {
+            if (keys.isEmpty()) {
+                return EMPTY;
+            }
+            keys.sort(Comparator.comparing(Key::text));
+            return build(keys, 0, keys.size(), 0);
+        }
+
+        // keys[lo, hi) share their first depth characters
+        private static Node build(List<Key> keys, int lo, int hi, int depth) {
+            List<int[]> ranks = new ArrayList<>();
+            int i = lo;
+            // Keys ending exactly here sort first
+            List<Integer> terminal = new ArrayList<>();
+            while (i < hi && keys.get(i).text().length() == depth) {
+                terminal.add(keys.get(i).rank());
+                i++;
+            }
+            ranks.add(terminal.stream().mapToInt(Integer::intValue).sorted().toArray());
+
+            List<Character> firstChars = new ArrayList<>();
+            List<String> edges = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            while (i < hi) {
+                char c = keys.get(i).text().charAt(depth);
+                int j = i;
+                while (j < hi && keys.get(j).text().charAt(depth) == c) {
+                    j++;
+                }
+                // Sorted, so the common prefix of the group is that of its first and last key
+                int end = commonPrefix(keys.get(i).text(), keys.get(j - 1).text());
+                Node child = build(keys, i, j, end);
+                firstChars.add(c);
+                edges.add(keys.get(i).text().substring(depth, end));
+                children.add(child);
+                ranks.add(child.top);
+                i = j;
+            }
+
+            char[] chars = new char[firstChars.size()];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = firstChars.get(c);
+            }
+            return new Node(chars, edges.toArray(new String[0]), children.toArray(new Node[0]), best(ranks));
+        }
+
+        // Lowest TOP_K distinct ranks across ascending arrays
+        static int[] best(List<int[]> sorted) {
+            int[] merged = sorted.stream().flatMapToInt(Arrays::stream).sorted().distinct().toArray();
+            return merged.length <= TOP_K ? merged : Arrays.copyOf(merged, TOP_K);
+        }
+
+        private static int commonPrefix(String a, String b) {
+            int length = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
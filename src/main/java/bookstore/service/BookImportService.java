@@ -0,0 +1,387 @@
+package bookstore.service;
+
+import bookstore.dto.AuthorRef;
+import bookstore.dto.BookImportRow;
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.CategorySummary;
+import bookstore.dto.ImportReport;
+import bookstore.models.ImportJob;
+import bookstore.models.ImportRowError;
+import bookstore.models.ImportStatus;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CategoryRepository;
+import bookstore.repository.ImportJobRepository;
+import bookstore.util.BookImportReader;
+import bookstore.util.UuidV7;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk import of books from CSV or JSON files, for onboarding whole catalogues.
+ *
+ * Authors and categories are resolved through lookup maps and title/ISBN uniqueness is
+ * checked against sets, all loaded once per run, instead of the three queries addBook()
+ * runs per book. Accepted rows are written with JDBC batch inserts, one transaction per
+ * chunk; the chunk's checkpoint (ImportJob.rowsProcessed) and rejected rows are saved in
+ * that same transaction. If a run fails, importing the same file again skips every row of
+ * the committed chunks and carries on from there.
+ *
+ * Caches and the in-memory indexes are updated after each chunk commits, the same way a
+ * single addBook() updates them.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    public static final int MAX_CHUNK_SIZE = 10_000;
+    // Default length of the string columns of Book
+    private static final int MAX_LENGTH = 255;
+
+    private static final String INSERT_SQL = "insert into book (id, title, isbn, is_borrowed, description, " +
+            "published_date, author_id, category_id, created_at, updated_at) values (?, ?, ?, false, ?, ?, ?, ?, ?, ?)";
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final ImportJobRepository importJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    // Whether UUID columns are binary(16) (MySQL/MariaDB); looked up on the first insert
+    private volatile Boolean binaryUuids;
+    private final BookSearchService searchService;
+    private final AutocompleteService autocompleteService;
+    private final FacetService facetService;
+    private final ObjectMapper objectMapper;
+    private final int defaultChunkSize;
+
+    @Autowired
+    public BookImportService(BookRepository bookRepository, AuthorRepository authorRepository,
+                             CategoryRepository categoryRepository, ImportJobRepository importJobRepository,
+                             JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             CatalogueCacheInvalidator cacheInvalidator, BookSearchService searchService,
+                             AutocompleteService autocompleteService, FacetService facetService,
+                             ObjectMapper objectMapper,
+                             @Value("${bookstore.import.chunk-size:1000}") int defaultChunkSize) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.categoryRepository = categoryRepository;
+        this.importJobRepository = importJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+        this.facetService = facetService;
+        this.objectMapper = objectMapper;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // Imports the file, or resumes its last unfinished run. chunkSize null means the configured default.
+    // Problems with the file itself (format, header) are an IllegalArgumentException before any row is written.
+    public ImportReport importBooks(String fileName, InputStreamSource source, Integer chunkSize) throws IOException {
+        BookImportReader.Format format = BookImportReader.Format.fromFileName(fileName);
+        int size = chunkSize == null ? defaultChunkSize : chunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        String checksum = checksum(source);
+
+        // Opened first so a malformed header does not leave a job behind
+        try (BookImportReader reader = BookImportReader.open(source.getInputStream(), format, objectMapper)) {
+            ImportJob job = transactionTemplate.execute(status -> startOrResume(fileName, checksum, size));
+            UUID jobId = job.getId();
+            long row = 0;
+            try {
+                long start = System.nanoTime();
+                Lookups lookups = loadLookups();
+                while (row < job.getRowsProcessed() && reader.hasNext()) {
+                    reader.next();
+                    row++;
+                }
+                if (row > 0) {
+                    logger.info("Resuming import {} of {} after row {}", jobId, fileName, row);
+                }
+
+                Chunk chunk = new Chunk();
+                while (reader.hasNext()) {
+                    row++;
+                    chunk.add(row, reader.next(), lookups);
+                    if (chunk.rows == size) {
+                        commit(jobId, chunk);
+                        chunk = new Chunk();
+                    }
+                }
+                if (chunk.rows > 0) {
+                    commit(jobId, chunk);
+                }
+                ImportReport report = finish(jobId, ImportStatus.COMPLETED, null);
+                logger.info("Imported {} of {} rows from {} in {} ms", report.rowsImported(), report.rowsProcessed(),
+                        fileName, (System.nanoTime() - start) / 1_000_000);
+                return report;
+            } catch (RuntimeException e) {
+                // The checkpoint stays at the last committed chunk
+                // The stored message is cut to fit its column, the log keeps the whole exception
+                logger.warn("Import {} of {} failed near row {}", jobId, fileName, row, e);
+                return finish(jobId, ImportStatus.FAILED, "Failed near row " + row + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public ImportReport findJob(UUID id) {
+        return transactionTemplate.execute(status -> importJobRepository.findWithErrorsById(id)
+                .map(ImportReport::of)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid import job ID")));
+    }
+
+    private ImportJob startOrResume(String fileName, String checksum, int chunkSize) {
+        ImportJob job = importJobRepository.findFirstByChecksumOrderByCreatedAtDesc(checksum)
+                .filter(previous -> previous.getStatus() != ImportStatus.COMPLETED)
+                .orElseGet(() -> new ImportJob(fileName, checksum, chunkSize));
+        job.setStatus(ImportStatus.RUNNING);
+        job.setChunkSize(chunkSize);
+        job.setFailureMessage(null);
+        return importJobRepository.save(job);
+    }
+
+    private ImportReport finish(UUID jobId, ImportStatus status, String failureMessage) {
+        return transactionTemplate.execute(tx -> {
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+            job.setStatus(status);
+            job.setFailureMessage(failureMessage);
+            return ImportReport.of(job);
+        });
+    }
+
+    // Inserts the chunk's books and moves the checkpoint past it, atomically
+    private void commit(UUID jobId, Chunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!chunk.books.isEmpty()) {
+                insert(chunk.books);
+            }
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+            job.chunkCommitted(chunk.rows, chunk.books.size(), chunk.errors);
+        });
+    }
+
+    // H2 and PostgreSQL take a UUID as is. On MySQL the id columns are binary(16) and Connector/J
+    // would serialise an unknown object, so bind the 16 bytes the way Hibernate stores them
+    // (most significant half first).
+    private void setUuid(PreparedStatement ps, int index, UUID id) throws SQLException {
+        if (!usesBinaryUuids()) {
+            ps.setObject(index, id);
+            return;
+        }
+        ps.setBytes(index, ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array());
+    }
+
+    private boolean usesBinaryUuids() {
+        Boolean binary = binaryUuids;
+        if (binary == null) {
+            try {
+                String product = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+                        jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+                binary = product != null && (product.equalsIgnoreCase("MySQL") || product.equalsIgnoreCase("MariaDB"));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Could not determine the database for the import", e);
+            }
+            binaryUuids = binary;
+        }
+        return binary;
+    }
+
+    private void insert(List<PendingBook> books) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_SQL, books, books.size(), (ps, book) -> {
+            setUuid(ps, 1, book.id());
+            ps.setString(2, book.title());
+            ps.setString(3, book.isbn());
+            ps.setString(4, book.description());
+            ps.setTimestamp(5, book.publishedDate() == null ? null : Timestamp.valueOf(book.publishedDate().atStartOfDay()));
+            setUuid(ps, 6, book.author().id());
+            setUuid(ps, 7, book.category().id());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+
+        List<BookSearchDocument> documents = new ArrayList<>(books.size());
+        Set<UUID> authorIds = new HashSet<>();
+        Set<UUID> categoryIds = new HashSet<>();
+        for (PendingBook book : books) {
+            documents.add(new BookSearchDocument(book.id(), book.title(), book.description(), book.isbn(), null, false,
+                    book.author().id(), book.author().name(), book.category().id(), book.category().name(), now));
+            authorIds.add(book.author().id());
+            categoryIds.add(book.category().id());
+        }
+
+        // All of these apply after commit
+        cacheInvalidator.rowAdded("books");
+        authorIds.forEach(id -> cacheInvalidator.evictKey("booksByAuthor", "author:" + id));
+        categoryIds.forEach(id -> cacheInvalidator.evictKey("booksByCategory", "category:" + id));
+        // A lookup of one of the new ISBNs may have cached the miss
+        cacheInvalidator.clear("booksByIsbn");
+        searchService.indexAll(documents);
+        facetService.indexAll(documents.stream().map(BookSearchDocument::toSummary).toList());
+        autocompleteService.invalidate();
+    }
+
+    private Lookups loadLookups() {
+        Lookups lookups = new Lookups();
+        for (AuthorRef author : authorRepository.findAllRefs()) {
+            lookups.authorsByEmail.put(key(author.email()), author);
+            // Two authors with the same name can only be told apart by email
+            lookups.authorsByName.merge(key(author.name()), author, (first, second) -> AMBIGUOUS);
+        }
+        for (CategorySummary category : categoryRepository.findAllSummaries()) {
+            lookups.categoriesByName.put(key(category.name()), category);
+        }
+        lookups.titles.addAll(bookRepository.findAllTitles());
+        lookups.isbns.addAll(bookRepository.findAllIsbns());
+        return lookups;
+    }
+
+    private String checksum(InputStreamSource source) throws IOException {
+        try (InputStream in = new DigestInputStream(source.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private static final AuthorRef AMBIGUOUS = new AuthorRef(null, null, null);
+
+    private record PendingBook(UUID id, String title, String isbn, String description, LocalDate publishedDate,
+                               AuthorRef author, CategorySummary category) {}
+
+    private static final class Lookups {
+        final Map<String, AuthorRef> authorsByEmail = new HashMap<>();
+        final Map<String, AuthorRef> authorsByName = new HashMap<>();
+        final Map<String, CategorySummary> categoriesByName = new HashMap<>();
+        // Existing rows plus those accepted so far, so duplicates within the file are caught too
+        final Set<String> titles = new HashSet<>();
+        final Set<String> isbns = new HashSet<>();
+    }
+
+    private static final class Chunk {
+        final List<PendingBook> books = new ArrayList<>();
+        final List<ImportRowError> errors = new ArrayList<>();
+        int rows;
+
+        void add(long row, BookImportRow input, Lookups lookups) {
+            rows++;
+            String error = validate(input, lookups);
+            if (error != null) {
+                errors.add(new ImportRowError(row, error));
+            }
+        }
+
+        // Accepts the row and returns null, or returns why it was rejected
+        private String validate(BookImportRow input, Lookups lookups) {
+            String title = trimToNull(input.title());
+            String isbn = trimToNull(input.isbn());
+            String authorKey = trimToNull(input.author());
+            String categoryName = trimToNull(input.category());
+            String description = trimToNull(input.description());
+            if (title == null) {
+                return "Title is required";
+            }
+            if (isbn == null) {
+                return "ISBN is required";
+            }
+            if (authorKey == null) {
+                return "Author is required";
+            }
+            if (categoryName == null) {
+                return "Category is required";
+            }
+            if (title.length() > MAX_LENGTH || isbn.length() > MAX_LENGTH
+                    || (description != null && description.length() > MAX_LENGTH)) {
+                return "Title, ISBN and description are limited to " + MAX_LENGTH + " characters";
+            }
+            if (lookups.titles.contains(title)) {
+                return "Book title already exists: " + title;
+            }
+            if (lookups.isbns.contains(isbn)) {
+                return "ISBN already exists: " + isbn;
+            }
+
+            AuthorRef author = authorKey.contains("@")
+                    ? lookups.authorsByEmail.get(key(authorKey))
+                    : lookups.authorsByName.get(key(authorKey));
+            if (author == null) {
+                return "Unknown author: " + authorKey;
+            }
+            if (author == AMBIGUOUS) {
+                return "Several authors are named " + authorKey + ", use the author's email";
+            }
+            CategorySummary category = lookups.categoriesByName.get(key(categoryName));
+            if (category == null) {
+                return "Unknown category: " + categoryName;
+            }
+
+            LocalDate publishedDate = null;
+            String published = trimToNull(input.publishedDate());
+            if (published != null) {
+                try {
+                    publishedDate = LocalDate.parse(published);
+                } catch (DateTimeParseException e) {
+                    return "Invalid published date " + published + ", expected yyyy-MM-dd";
+                }
+            }
+
+            lookups.titles.add(title);
+            lookups.isbns.add(isbn);
+            books.add(new PendingBook(UuidV7.generate(), title, isbn, description, publishedDate, author, category));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package bookstore.service;
+
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.BookSummary;
+import bookstore.repository.BookRepository;
+import bookstore.util.TransactionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process full-text index over title, description, ISBN, author name and category name.
+ *
+ * Every book gets an int ordinal; each term maps to a posting list of ordinals in ascending
+ * order with a per-document weight (term frequency times field boost). A query is the AND of
+ * its terms: the shortest posting list drives the intersection and the others are probed by
+ * binary search, so the cost follows the rarest term rather than the catalogue size. Hits are
+ * ranked by sum(weight * idf) and only the top "limit" are kept.
+ *
+ * The index is built once at startup and kept current by the BookService/AuthorService/
+ * CategoryService write methods; changes are applied after the surrounding transaction commits.
+ */
+@Service
+public class BookSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final float TITLE_BOOST = 3f;
+    private static final float AUTHOR_BOOST = 2f;
+    private static final float CATEGORY_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1f;
+    private static final float ISBN_BOOST = 5f;
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "was", "with");
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Removed books leave a null slot until the next compaction.
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<BookSearchDocument> documents = new ArrayList<>();
+
+    @Autowired
+    public BookSearchService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int indexed;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            documents.clear();
+            try (Stream<BookSearchDocument> rows = bookRepository.streamSearchDocuments()) {
+                rows.forEach(this::add);
+            }
+            postings.values().forEach(PostingList::trim);
+            indexed = ordinals.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} books for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Ranked AND search; blank queries and queries made only of stopwords return nothing
+    public List<BookSummary> search(String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            int live = ordinals.size();
+            float[] idf = new float[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                idf[i] = (float) Math.log(1 + (double) live / lists[i].size);
+            }
+
+            // Min-heap on score holding the best k hits seen so far
+            PriorityQueue<Hit> top = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::score));
+            int[] cursors = new int[lists.length];
+            PostingList driver = lists[0];
+            candidates:
+            for (int p = 0; p < driver.size; p++) {
+                int doc = driver.docs[p];
+                float score = driver.weights[p] * idf[0];
+                for (int i = 1; i < lists.length; i++) {
+                    // Candidates ascend, so each probe only searches past the previous match
+                    int at = Arrays.binarySearch(lists[i].docs, cursors[i], lists[i].size, doc);
+                    if (at < 0) {
+                        cursors[i] = -at - 1;
+                        if (cursors[i] >= lists[i].size) {
+                            break candidates;
+                        }
+                        continue candidates;
+                    }
+                    cursors[i] = at;
+                    score += lists[i].weights[at] * idf[i];
+                }
+                if (top.size() < k) {
+                    top.add(new Hit(doc, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(doc, score));
+                }
+            }
+
+            BookSummary[] results = new BookSummary[top.size()];
+            for (int i = results.length - 1; i >= 0; i--) {
+                results[i] = documents.get(top.poll().doc()).toSummary();
+            }
+            return List.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add or replace a book once the current transaction commits
+    public void index(BookSearchDocument document) {
+        TransactionUtil.afterCommit(() -> apply(List.of(document), List.of(document.id())));
+    }
+
+    // New books from one bulk import chunk, applied under a single write lock
+    public void indexAll(Collection<BookSearchDocument> documents) {
+        List<BookSearchDocument> added = List.copyOf(documents);
+        TransactionUtil.afterCommit(() -> apply(added, added.stream().map(BookSearchDocument::id).toList()));
+    }
+
+    public void remove(UUID bookId) {
+        TransactionUtil.afterCommit(() -> apply(List.of(), List.of(bookId)));
+    }
+
+    public void removeAll(Collection<UUID> bookIds) {
+        List<UUID> ids = List.copyOf(bookIds);
+        TransactionUtil.afterCommit(() -> apply(List.of(), ids));
+    }
+
+    // An author or category was renamed: its books carry the name as an indexed field.
+    // The rows are read now, inside the caller's transaction, and applied after commit.
+    public void reindexAuthor(UUID authorId) {
+        reindex(bookRepository.findSearchDocumentsByAuthorId(authorId));
+    }
+
+    public void reindexCategory(UUID categoryId) {
+        reindex(bookRepository.findSearchDocumentsByCategoryId(categoryId));
+    }
+
+    private void reindex(List<BookSearchDocument> documents) {
+        if (!documents.isEmpty()) {
+            TransactionUtil.afterCommit(() -> apply(documents, documents.stream().map(BookSearchDocument::id).toList()));
+        }
+    }
+
+    private void apply(List<BookSearchDocument> added, List<UUID> removed) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : removed) {
+                delete(id);
+            }
+            for (BookSearchDocument document : added) {
+                add(document);
+            }
+            // Tombstones cost memory and slow intersections down; rewrite once they are a third of the slots
+            if (documents.size() - ordinals.size() > documents.size() / 3) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // New ordinals are always the highest so far, which keeps every posting list sorted by appending
+    private void add(BookSearchDocument document) {
+        int doc = documents.size();
+        documents.add(document);
+        ordinals.put(document.id(), doc);
+        terms(document).forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).append(doc, weight));
+    }
+
+    private void delete(UUID id) {
+        Integer doc = ordinals.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : terms(documents.get(doc)).keySet()) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        documents.set(doc, null);
+    }
+
+    // Renumber live documents densely, preserving their relative order
+    private void compact() {
+        int[] remap = new int[documents.size()];
+        List<BookSearchDocument> live = new ArrayList<>(ordinals.size());
+        for (int doc = 0; doc < documents.size(); doc++) {
+            BookSearchDocument document = documents.get(doc);
+            remap[doc] = live.size();
+            if (document != null) {
+                live.add(document);
+                ordinals.put(document.id(), remap[doc]);
+            }
+        }
+        documents.clear();
+        documents.addAll(live);
+        for (PostingList list : postings.values()) {
+            for (int i = 0; i < list.size; i++) {
+                list.docs[i] = remap[list.docs[i]];
+            }
+            list.trim();
+        }
+    }
+
+    // Term -> weight for one book, summed over the fields the term occurs in
+    private static Map<String, Float> terms(BookSearchDocument document) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addField(weights, document.title(), TITLE_BOOST);
+        addField(weights, document.authorName(), AUTHOR_BOOST);
+        addField(weights, document.categoryName(), CATEGORY_BOOST);
+        addField(weights, document.description(), DESCRIPTION_BOOST);
+        addField(weights, document.isbn(), ISBN_BOOST);
+        if (document.isbn() != null) {
+            // "978-0-14-303943-3" is also findable as "9780143039433"
+            String compact = NON_ALPHANUMERIC.matcher(normalize(document.isbn())).replaceAll("");
+            if (!compact.isEmpty()) {
+                weights.merge(compact, ISBN_BOOST, Float::sum);
+            }
+        }
+        return weights;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float boost) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, boost, Float::sum);
+        }
+    }
+
+    // Lower-case, strip accents, split on anything that is not a letter or digit, drop stopwords
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    private record Hit(int doc, float score) {}
+
+    // Parallel primitive arrays: ordinals in ascending order and their weights
+    private static final class PostingList {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        void append(int doc, float weight) {
+            if (size == docs.length) {
+                int capacity = Math.max(4, size * 2);
+                docs = Arrays.copyOf(docs, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        void trim() {
+            docs = Arrays.copyOf(docs, size);
+            weights = Arrays.copyOf(weights, size);
+        }
+    }
+}
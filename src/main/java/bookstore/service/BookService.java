@@ -2,37 +2,39 @@
 package bookstore.service;
 
 import bookstore.dto.BookDTO;
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.BookSummary;
+import bookstore.dto.CursorPage;
 import bookstore.dto.UpdateAuthorDTO;
 import bookstore.models.Author;
 import bookstore.models.Book;
 import bookstore.models.Category;
+import bookstore.models.ImageStatus;
 import bookstore.repository.BookRepository;
 import bookstore.repository.AuthorRepository;
 import bookstore.repository.CategoryRepository;
+import bookstore.util.CursorToken;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 @Service
 public class BookService {
@@ -40,20 +42,37 @@ public class BookService {
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final BookSearchService searchService;
+    private final AutocompleteService autocompleteService;
+    private final FacetService facetService;
+    private final MediaStorageService mediaStorageService;
+    private final MediaGarbageCollector garbageCollector;
+    private final ApplicationEventPublisher eventPublisher;
     // private final AuthorService authorService;
     // private final CategoryService categoryService;
-    private final static String UPLOAD_DIR = "uploads/books";
+    private static final int PAGE_SIZE = 20;
 
     @Autowired
-    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, CategoryRepository categoryRepository) {
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, CategoryRepository categoryRepository,
+                       CatalogueCacheInvalidator cacheInvalidator, BookSearchService searchService,
+                       AutocompleteService autocompleteService, FacetService facetService,
+                       MediaStorageService mediaStorageService, MediaGarbageCollector garbageCollector,
+                       ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.categoryRepository = categoryRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+        this.facetService = facetService;
+        this.mediaStorageService = mediaStorageService;
+        this.garbageCollector = garbageCollector;
+        this.eventPublisher = eventPublisher;
     }
 
     // Create a new book
     @Transactional
-    @CacheEvict(value = "books", allEntries = true) // Clear paginated caches
     @CachePut(value = "books", key = "#result.id") 
     public Book addBook(@Valid BookDTO bookDTO, MultipartFile file) {
 
@@ -81,7 +100,12 @@ public class BookService {
             if (file != null && !file.isEmpty()) {
                 this.uploadBookImage(saveBook.getId(), file);
             }
-            
+            cacheInvalidator.rowAdded("books");
+            evictFinderEntries(saveBook);
+            searchService.index(BookSearchDocument.of(saveBook));
+            autocompleteService.invalidate();
+            facetService.index(BookSummary.of(saveBook));
+
             return saveBook;
 
         } catch (DataAccessException | IOException e) {
@@ -97,34 +121,57 @@ public class BookService {
 
     // Cache individual author by ID
     @Cacheable(value = "books", key = "#id")
+    @Transactional(readOnly = true)
     public Book findBookById(UUID id) {
-        return bookRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid book ID"));
+        Book book = loadBook(id);
+        // The cached book renders its author and category names
+        cacheInvalidator.register("books", id, book, relatedTags(List.of(book), false));
+        return book;
     }
 
-    // Find books by author
-    @Cacheable(value = "books", key = "#id")
+    // Finder results live in their own regions with namespaced keys so they can never
+    // collide with each other or with the Book entries keyed by id in "books"
+    @Cacheable(value = "booksByAuthor", key = "'author:' + #authorId")
+    @Transactional(readOnly = true)
     public List<Book> findBooksByAuthor(UUID authorId) {
-        return bookRepository.findByAuthor_Id(authorId);
+        List<Book> books = bookRepository.findByAuthor_Id(authorId);
+        cacheInvalidator.register("booksByAuthor", "author:" + authorId, books, relatedTags(books, true));
+        return books;
     }
 
     // Find books by category
-    @Cacheable(value = "books", key = "#id")
+    @Cacheable(value = "booksByCategory", key = "'category:' + #categoryId")
+    @Transactional(readOnly = true)
     public List<Book> findBooksByCategory(UUID categoryId) {
-        return bookRepository.findByCategory_Id(categoryId);
+        List<Book> books = bookRepository.findByCategory_Id(categoryId);
+        cacheInvalidator.register("booksByCategory", "category:" + categoryId, books, relatedTags(books, true));
+        return books;
     }
 
     // Find a book by its ISBN
-    @Cacheable(value = "books", key = "#id")
+    @Cacheable(value = "booksByIsbn", key = "'isbn:' + #isbn")
+    @Transactional(readOnly = true)
     public Book findBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        Book book = bookRepository.findByIsbn(isbn);
+        if (book != null) {
+            cacheInvalidator.register("booksByIsbn", "isbn:" + isbn, book, relatedTags(List.of(book), true));
+        }
+        return book;
+    }
+
+    private Book loadBook(UUID id) {
+        return bookRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid book ID"));
     }
 
     // Update an existing book
     @Transactional
-    @CacheEvict(value = "books", allEntries = true)
     public Book updateBook(UUID id, @Valid BookDTO updatedBook, MultipartFile file) {
-        Book book = findBookById(id);
+        // Not through findBookById: a self-invocation skips the cache, so it would register
+        // an entry that is never put
+        Book book = loadBook(id);
+        // The finder entries for the old author/category/ISBN no longer hold this book
+        evictFinderEntries(book);
 
         try {
             book.setTitle(updatedBook.getTitle());
@@ -137,22 +184,17 @@ public class BookService {
             // Set category
             Category category = categoryRepository.findById(updatedBook.getCategoryId()).orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
             book.setCategory(category);
-            // Handle image update
+            // Handle image update; the old image is removed once the new one is in place
             if (file != null && !file.isEmpty()) {
-                // Delete old image if it exists
-                if (book.getImageUrl() != null) {
-                    String relativePath = book.getImageUrl().startsWith("/") 
-                                    ? book.getImageUrl().substring(1) 
-                                    : book.getImageUrl();
-                
-                    Path imagePath = Paths.get(relativePath);
-                    Files.deleteIfExists(imagePath);
-                }
-
-                // Upload new image
                 this.uploadBookImage(id, file);
             }
-            return bookRepository.save(book);
+            Book savedBook = bookRepository.save(book);
+            cacheInvalidator.rowUpdated("books", id, CatalogueCacheInvalidator.tag("book", id));
+            evictFinderEntries(savedBook);
+            searchService.index(BookSearchDocument.of(savedBook));
+            autocompleteService.invalidate();
+            facetService.index(BookSummary.of(savedBook));
+            return savedBook;
         } catch (DataAccessException | IOException e) {
             throw new RuntimeException("Error updating book: " + e.getMessage());
         }
@@ -174,32 +216,25 @@ public class BookService {
 
     // Delete a book by its ID
     @Transactional
-    @CacheEvict(value = "books", allEntries = true)
     public void deleteBook(UUID id) {
-        Book book = findBookById(id);
+        // Not through findBookById: a self-invocation skips the cache, so it would register
+        // an entry that is never put
+        Book book = loadBook(id);
 
         if (!bookRepository.existsById(id)) {
             throw new IllegalArgumentException("Book with ID " + id + " not found.");
         }
 
-        if (book.getImageUrl() != null) {
-            try {
-                // Normalize the path by removing leading slash if present
-                String relativePath = book.getImageUrl().startsWith("/") 
-                                    ? book.getImageUrl().substring(1) 
-                                    : book.getImageUrl();
-                
-                Path imagePath = Paths.get(relativePath); // Create Path from normalized string
-                if (Files.exists(imagePath)) {
-                    Files.delete(imagePath); // Delete the file if it exists
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Error deleting book's image: " + e.getMessage());
-            }
-        }
+        // The image may be shared with other books; it is deleted after commit if unreferenced
+        garbageCollector.release(book.getImageUrl());
 
         try {
             bookRepository.deleteById(id);
+            cacheInvalidator.rowRemoved("books", id, CatalogueCacheInvalidator.tag("book", id));
+            evictFinderEntries(book);
+            searchService.remove(id);
+            autocompleteService.invalidate();
+            facetService.remove(id);
         } catch (DataAccessException e) {
             throw new RuntimeException("Error deleting book: " + e.getMessage());
         }
@@ -207,41 +242,99 @@ public class BookService {
 
     // Get all books
     @Cacheable(value = "books", key = "'all'")
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+        List<Book> books = bookRepository.findAll();
+        // Book changes evict 'all' directly, only author/category renames need tags
+        cacheInvalidator.register("books", CatalogueCacheInvalidator.ALL_KEY, books, relatedTags(books, false));
+        return books;
     }
 
-    @Async
+    // Stages the upload on the request thread and marks the book PENDING; the media pipeline
+    // (MediaProcessingService) moves it into place after commit on its own executor
     public void uploadBookImage(UUID bookId, MultipartFile file) throws IOException {
         Book book = bookRepository.findById(bookId).orElseThrow(() -> new IllegalArgumentException("Book not found"));
 
-        this.validateFile(file);
-        String fileName = bookId.toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(UPLOAD_DIR, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-
-        // Update book with image URL
-        book.setImageUrl("/" + UPLOAD_DIR + "/" + fileName);
+        MediaStorageService.StagedUpload staged = mediaStorageService.stage(file);
+        book.setImageStatus(ImageStatus.PENDING);
         bookRepository.save(book);
+        eventPublisher.publishEvent(new ImageUploadedEvent(ImageUploadedEvent.Owner.BOOK, bookId, staged, book.getImageUrl()));
     }
 
-    // Cache paginated books by page number
+    // Cache paginated books by page number; pages hold immutable BookSummary rows, not entities
     @Cacheable(value = "books", key = "'page_' + #page")
-    public Page<Book> getPaginatedBooks(int page) {
-        int pageSize = 20; // Define page size
-        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return bookRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getPaginatedBooks(int page) {
+        Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<BookSummary> books = bookRepository.findSummaries(pageable);
+        cacheInvalidator.registerPage("books", page, books, summaryTags(books.getContent()));
+        return books;
     }
 
-    private void validateFile(MultipartFile file) {
-        if (file != null && !file.isEmpty()) {
-            if (!file.getContentType().startsWith("image/")) {
-                throw new IllegalArgumentException("Uploaded file must be an image.");
+    // Keyset page following the cursor (blank = first page). Seeks on the (created_at, id)
+    // index, so deep pages cost the same as the first one and no count query is run.
+    @Cacheable(value = "books", key = "T(bookstore.service.CatalogueCacheInvalidator).cursorKey(#cursor)")
+    @Transactional(readOnly = true)
+    public CursorPage<BookSummary> getBooksAfter(String cursor) {
+        Pageable limit = PageRequest.ofSize(PAGE_SIZE + 1);
+        List<BookSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookRepository.findFirstSummaryPage(limit);
+        } else {
+            CursorToken after = CursorToken.decode(cursor);
+            rows = bookRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit);
+        }
+        CursorPage<BookSummary> books = CursorPage.of(rows, PAGE_SIZE, book -> new CursorToken(book.createdAt(), book.id()));
+        cacheInvalidator.register("books", CatalogueCacheInvalidator.cursorKey(cursor), books, summaryTags(books.content()));
+        return books;
+    }
+
+    // Only run when the UI explicitly asks for a total
+    @Transactional(readOnly = true)
+    public long countBooks() {
+        return bookRepository.count();
+    }
+
+    private void evictFinderEntries(Book book) {
+        if (book.getAuthor() != null) {
+            cacheInvalidator.evictKey("booksByAuthor", "author:" + book.getAuthor().getId());
+        }
+        if (book.getCategory() != null) {
+            cacheInvalidator.evictKey("booksByCategory", "category:" + book.getCategory().getId());
+        }
+        if (book.getIsbn() != null) {
+            cacheInvalidator.evictKey("booksByIsbn", "isbn:" + book.getIsbn());
+        }
+    }
+
+    private static Set<String> summaryTags(List<BookSummary> books) {
+        Set<String> tags = new HashSet<>();
+        for (BookSummary book : books) {
+            tags.add(CatalogueCacheInvalidator.tag("book", book.id()));
+            if (book.authorId() != null) {
+                tags.add(CatalogueCacheInvalidator.tag("author", book.authorId()));
+            }
+            if (book.categoryId() != null) {
+                tags.add(CatalogueCacheInvalidator.tag("category", book.categoryId()));
+            }
+        }
+        return tags;
+    }
+
+    // Tags for the rows a cached result renders: the books themselves plus their authors and categories
+    private static Set<String> relatedTags(List<Book> books, boolean includeBooks) {
+        Set<String> tags = new HashSet<>();
+        for (Book book : books) {
+            if (includeBooks) {
+                tags.add(CatalogueCacheInvalidator.tag("book", book.getId()));
+            }
+            if (book.getAuthor() != null) {
+                tags.add(CatalogueCacheInvalidator.tag("author", book.getAuthor().getId()));
             }
-            if (file.getSize() > 5 * 1024 * 1024) { // 5MB size limit
-                throw new IllegalArgumentException("File size must not exceed 5MB.");
+            if (book.getCategory() != null) {
+                tags.add(CatalogueCacheInvalidator.tag("category", book.getCategory().getId()));
             }
         }
+        return tags;
     }
 }
@@ -0,0 +1,302 @@
+package bookstore.service;
+
+import bookstore.config.CatalogueCacheManager;
+import bookstore.util.TransactionUtil;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks which cached pages/lists contain which rows so that a write only evicts
+ * the entries it actually affects instead of clearing a whole region.
+ *
+ * Cached entries register the rows they render as tags ("book:{id}", "author:{id}",
+ * "category:{id}"). Evictions run after the surrounding transaction commits so a
+ * concurrent reader cannot re-cache the old row in between.
+ *
+ * Registrations follow what is actually cached: the cache manager reports puts and size or
+ * expiry evictions back here (CatalogueCacheManager.EntryTracker), so entries Caffeine drops
+ * are forgotten too. A registration evicted before its value reached the cache cancels that
+ * put, since the value was read before the write that evicted it.
+ *
+ * Every write also bumps the catalogue version, which rendered pages use as their ETag
+ * (see CatalogueETagInterceptor): an unchanged version means an unchanged page.
+ */
+@Service
+public class CatalogueCacheInvalidator implements CatalogueCacheManager.EntryTracker {
+
+    public static final String ALL_KEY = "all";
+    private static final String PAGE_PREFIX = "page_";
+    private static final String CURSOR_PREFIX = "cursor_";
+    private static final String FIRST_CURSOR_KEY = CURSOR_PREFIX + "first";
+
+    private final CacheManager cacheManager;
+    // Incremented after every committed catalogue write
+    private final AtomicLong version = new AtomicLong();
+
+    // Guards registering and unregistering across both maps; cache puts do not take it
+    private final Object registryLock = new Object();
+    // tag -> cached entries rendering that row
+    private final Map<String, Set<CacheEntry>> dependents = new ConcurrentHashMap<>();
+    // cached entry -> the value it was registered for and its tags
+    private final Map<CacheEntry, Registration> registrations = new ConcurrentHashMap<>();
+    // Registered values invalidated before they were put: the put is skipped. A put normally
+    // follows its registration within milliseconds; ones that never come (the method threw, or
+    // its result was not cacheable) expire instead of piling up.
+    private final Map<CacheEntry, Object> cancelled = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .maximumSize(10_000)
+            .<CacheEntry, Object>build()
+            .asMap();
+
+    private record CacheEntry(String cache, Object key) {}
+
+    private record Registration(Object value, Set<String> tags, boolean cached) {
+        Registration markCached() {
+            return cached ? this : new Registration(value, tags, true);
+        }
+    }
+
+    @Autowired
+    public CatalogueCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        if (cacheManager instanceof CatalogueCacheManager catalogueCacheManager) {
+            catalogueCacheManager.setEntryTracker(this);
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public static String tag(String type, UUID id) {
+        return type + ":" + id;
+    }
+
+    public static String pageKey(int page) {
+        return PAGE_PREFIX + page;
+    }
+
+    public static String cursorKey(String cursor) {
+        return cursor == null || cursor.isBlank() ? FIRST_CURSOR_KEY : CURSOR_PREFIX + cursor;
+    }
+
+    // Called from @Cacheable methods on a cache miss, with the value about to be cached and
+    // the rows it contains
+    public void register(String cache, Object key, Object value, Collection<String> tags) {
+        CacheEntry entry = new CacheEntry(cache, key);
+        Set<String> newTags = Set.copyOf(tags);
+        synchronized (registryLock) {
+            Registration old = registrations.put(entry, new Registration(value, newTags, false));
+            if (old != null) {
+                for (String tag : old.tags()) {
+                    if (!newTags.contains(tag)) {
+                        forget(tag, entry);
+                    }
+                }
+            }
+            for (String tag : newTags) {
+                dependents.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(entry);
+            }
+        }
+    }
+
+    public void registerPage(String cache, int page, Object value, Collection<String> tags) {
+        register(cache, pageKey(page), value, tags);
+    }
+
+    // Cache put of a registered value: stored only while its registration is still live
+    @Override
+    public void put(String cache, Object key, Object value, Runnable put) {
+        CacheEntry entry = new CacheEntry(cache, key);
+        boolean[] registered = {false};
+        registrations.computeIfPresent(entry, (e, registration) -> {
+            if (registration.value() != value) {
+                return registration;
+            }
+            registered[0] = true;
+            put.run();
+            return registration.markCached();
+        });
+        if (registered[0] || (value != null && cancelled.remove(entry, value))) {
+            return;
+        }
+        put.run();
+    }
+
+    // Caffeine dropped the entry for size or expiry: forget it unless it was cached again since
+    @Override
+    public void evicted(String cache, Object key, Object value) {
+        CacheEntry entry = new CacheEntry(cache, key);
+        synchronized (registryLock) {
+            registrations.computeIfPresent(entry, (e, registration) -> {
+                if (registration.value() != value) {
+                    return registration;
+                }
+                registration.tags().forEach(tag -> forget(tag, e));
+                return null;
+            });
+        }
+    }
+
+    // A row was modified in place: evict its own key, the 'all' list and every entry rendering it
+    public void rowUpdated(String cache, UUID id, String tag) {
+        TransactionUtil.afterCommit(() -> {
+            evict(cache, id);
+            evict(cache, ALL_KEY);
+            evictDependents(tag);
+            version.incrementAndGet();
+        });
+    }
+
+    // A row was inserted: listings are sorted newest first, so every offset page of the region
+    // shifts. Keyset pages are anchored to a row and only the first one changes.
+    public void rowAdded(String cache) {
+        TransactionUtil.afterCommit(() -> {
+            evict(cache, ALL_KEY);
+            evict(cache, FIRST_CURSOR_KEY);
+            evictPagesFrom(cache, 1);
+            version.incrementAndGet();
+        });
+    }
+
+    // A row was removed: pages before the first one holding it are unaffected, later ones shift
+    public void rowRemoved(String cache, UUID id, String tag) {
+        TransactionUtil.afterCommit(() -> {
+            int firstPage = firstPageContaining(cache, tag);
+            evict(cache, id);
+            evict(cache, ALL_KEY);
+            evictDependents(tag);
+            evictPagesFrom(cache, firstPage);
+            version.incrementAndGet();
+        });
+    }
+
+    // Evict a single known key, e.g. a finder result the written row was added to
+    public void evictKey(String cache, Object key) {
+        TransactionUtil.afterCommit(() -> {
+            evict(cache, key);
+            version.incrementAndGet();
+        });
+    }
+
+    // Drop a region entirely, for writes whose effect cannot be narrowed down (e.g. cascades)
+    public void clear(String cache) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (registryLock) {
+                for (CacheEntry entry : List.copyOf(registrations.keySet())) {
+                    if (entry.cache().equals(cache)) {
+                        unregister(entry);
+                    }
+                }
+            }
+            Cache target = cacheManager.getCache(cache);
+            if (target != null) {
+                target.clear();
+            }
+            version.incrementAndGet();
+        });
+    }
+
+    public void evictDependents(String tag) {
+        Set<CacheEntry> entries;
+        synchronized (registryLock) {
+            entries = dependents.remove(tag);
+        }
+        if (entries == null) {
+            return;
+        }
+        for (CacheEntry entry : entries) {
+            evict(entry.cache(), entry.key());
+        }
+    }
+
+    // Number of registered entries, for tests
+    int registeredEntries() {
+        return registrations.size();
+    }
+
+    // Number of registrations waiting for a put that is to be skipped, for tests
+    int cancelledPuts() {
+        return cancelled.size();
+    }
+
+    private void evictPagesFrom(String cache, int fromPage) {
+        Set<CacheEntry> pages = new HashSet<>();
+        for (CacheEntry entry : registrations.keySet()) {
+            int page = pageNumber(entry);
+            if (entry.cache().equals(cache) && page >= fromPage) {
+                pages.add(entry);
+            }
+        }
+        for (CacheEntry entry : pages) {
+            evict(entry.cache(), entry.key());
+        }
+    }
+
+    // Unknown position means the row could be anywhere, so everything from page 1 shifts
+    private int firstPageContaining(String cache, String tag) {
+        int first = Integer.MAX_VALUE;
+        for (CacheEntry entry : dependents.getOrDefault(tag, Set.of())) {
+            int page = pageNumber(entry);
+            if (entry.cache().equals(cache) && page > 0) {
+                first = Math.min(first, page);
+            }
+        }
+        return first == Integer.MAX_VALUE ? 1 : first;
+    }
+
+    private static int pageNumber(CacheEntry entry) {
+        if (entry.key() instanceof String key && key.startsWith(PAGE_PREFIX)) {
+            try {
+                return Integer.parseInt(key.substring(PAGE_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // Unregister first: a put racing with this either lands before (and is evicted below) or
+    // finds its registration gone and is skipped
+    private void evict(String cache, Object key) {
+        synchronized (registryLock) {
+            unregister(new CacheEntry(cache, key));
+        }
+        Cache target = cacheManager.getCache(cache);
+        if (target != null) {
+            target.evict(key);
+        }
+    }
+
+    private void unregister(CacheEntry entry) {
+        registrations.computeIfPresent(entry, (e, registration) -> {
+            if (!registration.cached()) {
+                cancelled.put(e, registration.value());
+            }
+            registration.tags().forEach(tag -> forget(tag, e));
+            return null;
+        });
+    }
+
+    private void forget(String tag, CacheEntry entry) {
+        dependents.computeIfPresent(tag, (t, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package bookstore.service;
+
+import bookstore.dto.BookSummary;
+import bookstore.repository.BookRepository;
+import bookstore.util.SparseFieldset;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Whole-catalogue exports. Rows are streamed from a forward-only database cursor (fetch size
+ * 1000) straight to the consumer, which writes them out, so memory use does not grow with the
+ * catalogue the way getAllBooks() does. The projection rows are not managed entities, so
+ * the persistence context stays empty for the whole export.
+ *
+ * export() writes each row to the output as soon as it is read; only the writer's buffer
+ * sits between the cursor and the client.
+ */
+@Service
+public class CatalogueExportService {
+
+    public enum Format {
+        JSON("application/json", ".json"),
+        NDJSON("application/x-ndjson", ".ndjson"),
+        CSV("text/csv;charset=UTF-8", ".csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format fromName(String name) {
+            try {
+                return valueOf(name.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + name + " (expected json, ndjson or csv)");
+            }
+        }
+
+        // books.csv, books.ndjson / books.jsonl, books.json
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            for (Format format : values()) {
+                if (name.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export file: " + fileName + " (expected .json, .ndjson or .csv)");
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CatalogueExportService(BookRepository bookRepository, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // The stream needs its transaction (and connection) open until the last row is consumed
+    @Transactional(readOnly = true)
+    public long forEachBook(Consumer<BookSummary> consumer) {
+        long count = 0;
+        try (Stream<BookSummary> rows = bookRepository.streamSummariesOldestFirst()) {
+            for (BookSummary row : (Iterable<BookSummary>) rows::iterator) {
+                consumer.accept(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Writes every book (only the selected fields) to out, oldest first, and returns the row count.
+    // out is flushed but not closed.
+    @Transactional(readOnly = true)
+    public long export(Format format, SparseFieldset<BookSummary> fields, OutputStream out) throws IOException {
+        try {
+            return switch (format) {
+                case JSON, NDJSON -> writeJson(format, fields, out);
+                case CSV -> writeCsv(fields, out);
+            };
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the export is abandoned and the cursor closed
+            throw e.getCause();
+        }
+    }
+
+    private long writeJson(Format format, SparseFieldset<BookSummary> fields, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            } else {
+                // NDJSON: every object ends its own line, no separator between root values
+                generator.setRootValueSeparator(null);
+            }
+            long count = forEachBook(row -> {
+                try {
+                    generator.writeObject(fields.apply(row));
+                    if (format == Format.NDJSON) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+            return count;
+        }
+    }
+
+    private long writeCsv(SparseFieldset<BookSummary> fields, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<String> columns = fields.names();
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        long count = forEachBook(row -> {
+            try {
+                Map<String, Object> values = fields.apply(row);
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csvValue(values.get(columns.get(i))));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: quote values holding a separator, quote or line break, doubling inner quotes.
+    // Text that a spreadsheet would run as a formula (=, +, -, @, tab, CR first) gets a leading '.
+    static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Date date ? date.toInstant().toString() : value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,10 +1,12 @@
 package bookstore.service;
 
+import bookstore.dto.CategorySummary;
+import bookstore.dto.CursorPage;
 import bookstore.models.Category;
 import bookstore.repository.CategoryRepository;
+import bookstore.util.CursorToken;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -12,41 +14,79 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
 
+    private static final int PAGE_SIZE = 20; // Number of categories per page
+
     private final CategoryRepository categoryRepository;
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final BookSearchService searchService;
+    private final FacetService facetService;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, CatalogueCacheInvalidator cacheInvalidator,
+                           BookSearchService searchService, FacetService facetService) {
         this.categoryRepository = categoryRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchService = searchService;
+        this.facetService = facetService;
     }
 
     public boolean isCategoryNameExists(String name) {
         return categoryRepository.existsByName(name);
     }
 
-    @CacheEvict(value = "categories", allEntries = true) // Clear paginated caches
     @CachePut(value = "categories", key = "#result.id") 
     public Category addCategory(Category category) {
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        cacheInvalidator.rowAdded("categories");
+        return savedCategory;
+    }
+
+    // Creates the named categories that do not exist yet with one lookup and one batched insert,
+    // instead of a findByName and a save per name. Returns the categories created.
+    @Transactional
+    public List<Category> addCategories(Collection<String> names) {
+        Set<String> missing = new LinkedHashSet<>(names);
+        missing.removeAll(categoryRepository.findNamesIn(missing));
+        if (missing.isEmpty()) {
+            return List.of();
+        }
+        List<Category> categories = new ArrayList<>(missing.size());
+        for (String name : missing) {
+            Category category = new Category();
+            category.setName(name);
+            categories.add(category);
+        }
+        List<Category> savedCategories = categoryRepository.saveAll(categories);
+        cacheInvalidator.rowAdded("categories");
+        return savedCategories;
     }
 
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
 
     @Cacheable(value = "categories", key = "#id")
+    @Transactional(readOnly = true)
     public Category findCategoryById(UUID id) {
         return categoryRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid category ID"));
     }
 
-    @CacheEvict(value = "categories", allEntries = true) // Clear related caches
+    // Evicts the category pages and book pages that render this category
     @CachePut(value = "categories", key = "#id")
     public Category updateCategory(UUID id, Category updatedCategory) {
         return categoryRepository.findById(id).map(existingCategory -> {
@@ -57,22 +97,56 @@ public class CategoryService {
                 }
             }
             existingCategory.setName(updatedCategory.getName());
-            return categoryRepository.save(existingCategory);
+            Category savedCategory = categoryRepository.save(existingCategory);
+            cacheInvalidator.rowUpdated("categories", id, CatalogueCacheInvalidator.tag("category", id));
+            searchService.reindexCategory(id);
+            facetService.renameCategory(id, savedCategory.getName());
+            return savedCategory;
         }).orElseThrow(() -> new IllegalArgumentException("Category with ID " + id + " not found."));
     }
 
     @Cacheable(value = "categories", key = "'page_' + #page") // Cache paginated results
-    public Page<Category> getPaginatedCategories(int page) {
-        int pageSize = 20; // Number of categories per page
-        Pageable pageable = PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return categoryRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<CategorySummary> getPaginatedCategories(int page) {
+        Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<CategorySummary> categories = categoryRepository.findSummaries(pageable);
+        cacheInvalidator.registerPage("categories", page, categories, categoryTags(categories.getContent()));
+        return categories;
+    }
+
+    // Keyset page following the cursor (blank = first page), see BookService#getBooksAfter
+    @Cacheable(value = "categories", key = "T(bookstore.service.CatalogueCacheInvalidator).cursorKey(#cursor)")
+    @Transactional(readOnly = true)
+    public CursorPage<CategorySummary> getCategoriesAfter(String cursor) {
+        Pageable limit = PageRequest.ofSize(PAGE_SIZE + 1);
+        List<CategorySummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = categoryRepository.findFirstSummaryPage(limit);
+        } else {
+            CursorToken after = CursorToken.decode(cursor);
+            rows = categoryRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit);
+        }
+        CursorPage<CategorySummary> categories = CursorPage.of(rows, PAGE_SIZE, category -> new CursorToken(category.createdAt(), category.id()));
+        cacheInvalidator.register("categories", CatalogueCacheInvalidator.cursorKey(cursor), categories, categoryTags(categories.content()));
+        return categories;
+    }
+
+    @Transactional(readOnly = true)
+    public long countCategories() {
+        return categoryRepository.count();
+    }
+
+    private static Set<String> categoryTags(List<CategorySummary> categories) {
+        return categories.stream()
+                .map(category -> CatalogueCacheInvalidator.tag("category", category.id()))
+                .collect(Collectors.toSet());
     }
 
-    @CacheEvict(value = "categories", allEntries = true)
     public void deleteCategory(UUID id) {
         if (!categoryRepository.existsById(id)) {
             throw new IllegalArgumentException("Category with ID " + id + " not found.");
         }
         categoryRepository.deleteById(id);
+        cacheInvalidator.rowRemoved("categories", id, CatalogueCacheInvalidator.tag("category", id));
     }
 }
@@ -0,0 +1,358 @@
+package bookstore.service;
+
+import bookstore.dto.BookFilter;
+import bookstore.dto.BookSummary;
+import bookstore.dto.FacetCount;
+import bookstore.dto.FacetCounts;
+import bookstore.dto.FacetedPage;
+import bookstore.repository.BookRepository;
+import bookstore.util.TransactionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Category / author / availability facets over the whole catalogue.
+ *
+ * Every book has an int ordinal assigned in creation order, so walking a bitmap from its
+ * highest bit down lists books newest first like /books/list. Each category and author
+ * keeps a BitSet of its books and a running count; a filter is the intersection of the
+ * selected bitmaps. Counts for the facets the user has not narrowed come straight from the
+ * running counts; otherwise they are tallied over the matching ordinals only.
+ *
+ * Built at startup and kept current by the BookService/AuthorService/CategoryService write
+ * methods after their transactions commit.
+ */
+@Service
+public class FacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetService.class);
+
+    public static final int PAGE_SIZE = 20;
+    public static final int MAX_AUTHOR_FACETS = 20;
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Ordinals of removed books stay unused until the next compaction.
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<UUID> bookIds = new ArrayList<>();
+    private int[] bookCategory = new int[1024];
+    private int[] bookAuthor = new int[1024];
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Facet categories = new Facet();
+    private final Facet authors = new Facet();
+
+    @Autowired
+    public FacetService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int indexed;
+        lock.writeLock().lock();
+        try {
+            clear();
+            try (Stream<BookSummary> rows = bookRepository.streamSummariesOldestFirst()) {
+                rows.forEach(this::put);
+            }
+            indexed = ordinals.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} books for facets in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public FacetCounts counts(BookFilter filter) {
+        lock.readLock().lock();
+        try {
+            return countsFor(filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Facets plus one newest-first page of the matching books; the page rows are loaded by id
+    public FacetedPage browse(BookFilter filter, int page) {
+        FacetCounts facets;
+        List<UUID> pageIds = new ArrayList<>(PAGE_SIZE);
+        int totalItems;
+        lock.readLock().lock();
+        try {
+            facets = countsFor(filter);
+            BitSet matches = intersect(filter.categoryId(), filter.authorId(), filter.availableOnly());
+            totalItems = matches.cardinality();
+            int skip = (Math.max(page, 1) - 1) * PAGE_SIZE;
+            for (int doc = matches.previousSetBit(matches.length() - 1);
+                 doc >= 0 && pageIds.size() < PAGE_SIZE; doc = matches.previousSetBit(doc - 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    pageIds.add(bookIds.get(doc));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<UUID, BookSummary> rows = pageIds.isEmpty() ? Map.of()
+                : bookRepository.findSummariesByIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(BookSummary::id, Function.identity()));
+        // Keep the index order; a book deleted since the lookup is simply skipped
+        List<BookSummary> books = pageIds.stream().map(rows::get).filter(row -> row != null).toList();
+        int totalPages = (totalItems + PAGE_SIZE - 1) / PAGE_SIZE;
+        return new FacetedPage(books, Math.max(page, 1), totalPages, totalItems, facets);
+    }
+
+    // Add or move a book (new author, category or borrowed flag) once the transaction commits
+    public void index(BookSummary book) {
+        TransactionUtil.afterCommit(() -> write(() -> put(book)));
+    }
+
+    public void indexAll(Collection<BookSummary> books) {
+        List<BookSummary> added = List.copyOf(books);
+        TransactionUtil.afterCommit(() -> write(() -> added.forEach(this::put)));
+    }
+
+    public void remove(UUID bookId) {
+        TransactionUtil.afterCommit(() -> write(() -> delete(bookId)));
+    }
+
+    public void removeAll(Collection<UUID> bookIds) {
+        List<UUID> ids = List.copyOf(bookIds);
+        TransactionUtil.afterCommit(() -> write(() -> ids.forEach(this::delete)));
+    }
+
+    public void renameAuthor(UUID authorId, String name) {
+        TransactionUtil.afterCommit(() -> write(() -> authors.rename(authorId, name)));
+    }
+
+    public void renameCategory(UUID categoryId, String name) {
+        TransactionUtil.afterCommit(() -> write(() -> categories.rename(categoryId, name)));
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            // Removed ordinals still cost bitmap words; renumber once they are a third of the range
+            if (bookIds.size() - ordinals.size() > bookIds.size() / 3) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private FacetCounts countsFor(BookFilter filter) {
+        UUID categoryId = filter.categoryId();
+        UUID authorId = filter.authorId();
+        boolean availableOnly = filter.availableOnly();
+
+        // Each facet is counted with every selection except its own
+        List<FacetCount> categoryCounts = authorId == null && !availableOnly
+                ? categories.counts(Integer.MAX_VALUE)
+                : categories.tally(intersect(null, authorId, availableOnly), bookCategory, Integer.MAX_VALUE);
+        List<FacetCount> authorCounts = categoryId == null && !availableOnly
+                ? authors.counts(MAX_AUTHOR_FACETS)
+                : authors.tally(intersect(categoryId, null, availableOnly), bookAuthor, MAX_AUTHOR_FACETS);
+
+        BitSet selected = intersect(categoryId, authorId, false);
+        int total = selected.cardinality();
+        selected.and(available);
+        int availableCount = selected.cardinality();
+        return new FacetCounts(categoryCounts, authorCounts, availableCount, total - availableCount);
+    }
+
+    private BitSet intersect(UUID categoryId, UUID authorId, boolean availableOnly) {
+        BitSet result = (BitSet) live.clone();
+        if (categoryId != null) {
+            result.and(categories.books(categoryId));
+        }
+        if (authorId != null) {
+            result.and(authors.books(authorId));
+        }
+        if (availableOnly) {
+            result.and(available);
+        }
+        return result;
+    }
+
+    private void put(BookSummary book) {
+        Integer existing = ordinals.get(book.id());
+        int doc;
+        if (existing != null) {
+            // Same ordinal, so the book keeps its place in the newest-first order
+            doc = existing;
+            categories.unassign(bookCategory[doc], doc);
+            authors.unassign(bookAuthor[doc], doc);
+        } else {
+            doc = bookIds.size();
+            bookIds.add(book.id());
+            ordinals.put(book.id(), doc);
+            if (doc >= bookCategory.length) {
+                bookCategory = Arrays.copyOf(bookCategory, doc * 2);
+                bookAuthor = Arrays.copyOf(bookAuthor, doc * 2);
+            }
+            live.set(doc);
+        }
+        bookCategory[doc] = categories.assign(book.categoryId(), book.categoryName(), doc);
+        bookAuthor[doc] = authors.assign(book.authorId(), book.authorName(), doc);
+        available.set(doc, !book.borrowed());
+    }
+
+    private void delete(UUID bookId) {
+        Integer doc = ordinals.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        categories.unassign(bookCategory[doc], doc);
+        authors.unassign(bookAuthor[doc], doc);
+        live.clear(doc);
+        available.clear(doc);
+        bookIds.set(doc, null);
+    }
+
+    private void compact() {
+        List<BookSummary> rows = new ArrayList<>(ordinals.size());
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            rows.add(new BookSummary(bookIds.get(doc), null, null, null, !available.get(doc),
+                    authors.id(bookAuthor[doc]), authors.name(bookAuthor[doc]),
+                    categories.id(bookCategory[doc]), categories.name(bookCategory[doc]), null));
+        }
+        clear();
+        rows.forEach(this::put);
+    }
+
+    private void clear() {
+        ordinals.clear();
+        bookIds.clear();
+        live.clear();
+        available.clear();
+        categories.clear();
+        authors.clear();
+    }
+
+    // The values of one facet: small int ordinals with a bitmap of books and a running count each
+    private static final class Facet {
+
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<UUID> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<BitSet> books = new ArrayList<>();
+        private int[] counts = new int[64];
+
+        // Returns the value ordinal, or -1 for a book without this facet
+        int assign(UUID id, String name, int doc) {
+            if (id == null) {
+                return -1;
+            }
+            int value = ordinals.computeIfAbsent(id, key -> {
+                ids.add(key);
+                names.add(name);
+                books.add(new BitSet());
+                if (ids.size() > counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+                return ids.size() - 1;
+            });
+            names.set(value, name);
+            books.get(value).set(doc);
+            counts[value]++;
+            return value;
+        }
+
+        void unassign(int value, int doc) {
+            if (value >= 0) {
+                books.get(value).clear(doc);
+                counts[value]--;
+            }
+        }
+
+        void rename(UUID id, String name) {
+            Integer value = ordinals.get(id);
+            if (value != null) {
+                names.set(value, name);
+            }
+        }
+
+        BitSet books(UUID id) {
+            Integer value = ordinals.get(id);
+            return value == null ? new BitSet() : books.get(value);
+        }
+
+        UUID id(int value) {
+            return value < 0 ? null : ids.get(value);
+        }
+
+        String name(int value) {
+            return value < 0 ? null : names.get(value);
+        }
+
+        List<FacetCount> counts(int limit) {
+            return top(counts, limit);
+        }
+
+        // Counts restricted to the given books, reading each book's value from bookValues
+        List<FacetCount> tally(BitSet matches, int[] bookValues, int limit) {
+            int[] tally = new int[ids.size()];
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                if (bookValues[doc] >= 0) {
+                    tally[bookValues[doc]]++;
+                }
+            }
+            return top(tally, limit);
+        }
+
+        // Non-zero counts, largest first, keeping only "limit" of them without sorting everything
+        private List<FacetCount> top(int[] values, int limit) {
+            Comparator<FacetCount> order = Comparator.comparingInt(FacetCount::count).reversed()
+                    .thenComparing(FacetCount::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            PriorityQueue<FacetCount> best = new PriorityQueue<>(order.reversed());
+            for (int value = 0; value < ids.size(); value++) {
+                if (values[value] > 0) {
+                    best.add(new FacetCount(ids.get(value), names.get(value), values[value]));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            List<FacetCount> result = new ArrayList<>(best);
+            result.sort(order);
+            return result;
+        }
+
+        void clear() {
+            ordinals.clear();
+            ids.clear();
+            names.clear();
+            books.clear();
+            Arrays.fill(counts, 0);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package bookstore.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Fixed-size JPEG derivatives of uploaded covers and portraits, stored next to the original:
+ * "/uploads/blobs/ab/cd/abcd....png" gets "...png.thumb.jpg" and "...png.medium.jpg".
+ * List pages ask for the thumbnail instead of the full upload (see ImageUrls).
+ *
+ * Formats ImageIO cannot decode (e.g. WebP) simply get no derivatives and are served as is,
+ * and so do images above MAX_PIXELS: the dimensions are read from the header before decoding,
+ * since a small file can declare a huge canvas.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+    // 40 megapixels, about 160MB decoded; well above any real cover or portrait
+    static final long MAX_PIXELS = 40_000_000L;
+
+    // Bounding boxes; images are scaled down to fit, never up
+    public enum Size {
+        THUMB(240, 360),
+        MEDIUM(600, 900);
+
+        private final int maxWidth;
+        private final int maxHeight;
+
+        Size(int maxWidth, int maxHeight) {
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+        }
+
+        public String suffix() {
+            return "." + name().toLowerCase() + ".jpg";
+        }
+    }
+
+    public static String derivativeUrl(String imageUrl, Size size) {
+        return imageUrl + size.suffix();
+    }
+
+    public static boolean isDerivative(String fileName) {
+        for (Size size : Size.values()) {
+            if (fileName.endsWith(size.suffix())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns false when the original could not be decoded and no derivatives were written
+    public boolean generate(String imageUrl) throws IOException {
+        return generate(imageUrl, MAX_PIXELS);
+    }
+
+    boolean generate(String imageUrl, long maxPixels) throws IOException {
+        Path original = toPath(imageUrl);
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = in == null ? null : firstReader(in);
+            if (reader == null) {
+                logger.info("No derivatives for {}: format not supported by ImageIO", imageUrl);
+                return false;
+            }
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("No derivatives for {}: {}x{} is above the {} pixel limit",
+                            imageUrl, reader.getWidth(0), reader.getHeight(0), maxPixels);
+                    return false;
+                }
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+        try {
+            for (Size size : Size.values()) {
+                write(scale(source, size), toPath(derivativeUrl(imageUrl, size)));
+            }
+        } finally {
+            source.flush();
+        }
+        return true;
+    }
+
+    public boolean hasDerivatives(String imageUrl) {
+        return Files.exists(toPath(derivativeUrl(imageUrl, Size.THUMB)));
+    }
+
+    public void delete(String imageUrl) throws IOException {
+        for (Size size : Size.values()) {
+            Files.deleteIfExists(toPath(derivativeUrl(imageUrl, size)));
+        }
+    }
+
+    static BufferedImage scale(BufferedImage source, Size size) {
+        double ratio = Math.min(1.0, Math.min((double) size.maxWidth / source.getWidth(),
+                (double) size.maxHeight / source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // JPEG has no alpha: flatten transparent PNG/GIF covers onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static ImageReader firstReader(ImageInputStream in) {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        return readers.hasNext() ? readers.next() : null;
+    }
+
+    // Written to a temp file first so a half-written derivative is never served
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".derivative-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+            image.flush();
+        }
+    }
+
+    private static Path toPath(String imageUrl) {
+        return Paths.get(imageUrl.startsWith("/") ? imageUrl.substring(1) : imageUrl);
+    }
+}
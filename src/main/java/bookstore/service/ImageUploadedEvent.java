@@ -0,0 +1,14 @@
+package bookstore.service;
+
+import java.util.UUID;
+
+// Published by BookService/AuthorService once an upload has been staged; handled by
+// MediaProcessingService after the owning transaction commits
+public record ImageUploadedEvent(Owner owner, UUID ownerId, MediaStorageService.StagedUpload upload,
+                                 String previousImageUrl) {
+
+    public enum Owner {
+        BOOK,
+        AUTHOR
+    }
+}
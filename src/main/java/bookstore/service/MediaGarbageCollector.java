@@ -0,0 +1,149 @@
+package bookstore.service;
+
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+import bookstore.util.TransactionUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Deletes image blobs nobody refers to any more.
+ *
+ * A blob is referenced by every Book.imageUrl and Author.imageUrl equal to its URL. When a
+ * row drops an image, release() checks that count once the change has committed and deletes
+ * the blob (with its derivatives) at zero. A periodic sweep catches whatever release() left
+ * behind: crashes, failed deletes, or blobs still inside the grace period.
+ *
+ * The grace period covers the window between MediaStorageService.publish() and the pipeline
+ * attaching the URL to its row, during which a blob is live but not yet referenced. publish()
+ * refreshes the timestamp of an existing blob, so a re-upload of the same content is covered too.
+ *
+ * Pre-blob uploads ("/uploads/books/<id>_name") belong to a single row and are deleted at once.
+ */
+@Service
+public class MediaGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaGarbageCollector.class);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final MediaStorageService mediaStorageService;
+    private final ThreadPoolTaskExecutor mediaExecutor;
+    private final Duration gracePeriod;
+
+    @Autowired
+    public MediaGarbageCollector(BookRepository bookRepository, AuthorRepository authorRepository,
+                                 MediaStorageService mediaStorageService,
+                                 @Qualifier("mediaExecutor") ThreadPoolTaskExecutor mediaExecutor,
+                                 @Value("${bookstore.media.gc-grace-period:PT1H}") Duration gracePeriod) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.mediaStorageService = mediaStorageService;
+        this.mediaExecutor = mediaExecutor;
+        this.gracePeriod = gracePeriod;
+    }
+
+    // A row stopped referring to imageUrl. Checked on the media executor after commit, so the
+    // count sees the committed change and the request does not wait for the filesystem.
+    public void release(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> mediaExecutor.execute(() -> collect(imageUrl)));
+    }
+
+    // Returns true when the image was deleted
+    public boolean collect(String imageUrl) {
+        try {
+            if (!MediaStorageService.isBlob(imageUrl)) {
+                mediaStorageService.deleteImage(imageUrl);
+                return true;
+            }
+            if (references(imageUrl) > 0 || withinGracePeriod(mediaStorageService.resolve(imageUrl))) {
+                return false;
+            }
+            mediaStorageService.deleteImage(imageUrl);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not release image {}", imageUrl, e);
+            return false;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${bookstore.media.gc-initial-delay:PT10M}",
+               fixedDelayString = "${bookstore.media.gc-interval:PT6H}")
+    public void sweep() {
+        long start = System.nanoTime();
+        // Loaded before listing, so a blob attached after this point is still in its grace period
+        Set<String> referenced = new HashSet<>(bookRepository.findImageUrls());
+        referenced.addAll(authorRepository.findImageUrls());
+
+        Path blobs = mediaStorageService.resolve("/" + MediaStorageService.BLOB_DIR);
+        if (!Files.isDirectory(blobs)) {
+            return;
+        }
+        int deleted = 0;
+        int kept = 0;
+        for (Path blob : listBlobs(blobs)) {
+            String url = "/" + MediaStorageService.BLOB_DIR + "/" + blobs.relativize(blob).toString().replace('\\', '/');
+            if (referenced.contains(url) || withinGracePeriod(blob)) {
+                kept++;
+                continue;
+            }
+            try {
+                mediaStorageService.deleteImage(url);
+                deleted++;
+            } catch (IOException e) {
+                logger.warn("Could not delete unreferenced image {}", url, e);
+            }
+        }
+        logger.info("Media sweep deleted {} unreferenced blobs and kept {} in {} ms",
+                deleted, kept, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long references(String imageUrl) {
+        return bookRepository.countByImageUrl(imageUrl) + authorRepository.countByImageUrl(imageUrl);
+    }
+
+    private boolean withinGracePeriod(Path blob) {
+        try {
+            Instant modified = Files.getLastModifiedTime(blob).toInstant();
+            return modified.isAfter(Instant.now().minus(gracePeriod));
+        } catch (IOException e) {
+            // Already gone, or unreadable: nothing to delete either way
+            return true;
+        }
+    }
+
+    // Originals only; derivatives are deleted together with their original
+    private static List<Path> listBlobs(Path blobs) {
+        try (Stream<Path> files = Files.walk(blobs, 3)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return !name.startsWith(".") && !ImageDerivativeService.isDerivative(name);
+                    })
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Could not list image blobs", e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package bookstore.service;
+
+import bookstore.dto.BookSearchDocument;
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.ImageStatus;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Background half of an image upload. The request thread only stages the file and marks the
+ * row PENDING; once that transaction commits this moves the file into place on the bounded
+ * "mediaExecutor" pool, generates its thumbnail/medium derivatives, points the row at it and
+ * marks it READY (or FAILED), then drops the cached copies of the row.
+ */
+@Service
+public class MediaProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaProcessingService.class);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final MediaStorageService mediaStorageService;
+    private final CatalogueCacheInvalidator cacheInvalidator;
+    private final BookSearchService searchService;
+    private final ImageDerivativeService derivativeService;
+    private final MediaGarbageCollector garbageCollector;
+
+    @Autowired
+    public MediaProcessingService(BookRepository bookRepository, AuthorRepository authorRepository,
+                                  MediaStorageService mediaStorageService, CatalogueCacheInvalidator cacheInvalidator,
+                                  BookSearchService searchService, ImageDerivativeService derivativeService,
+                                  MediaGarbageCollector garbageCollector) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.mediaStorageService = mediaStorageService;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchService = searchService;
+        this.derivativeService = derivativeService;
+        this.garbageCollector = garbageCollector;
+    }
+
+    @Async("mediaExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onImageUploaded(ImageUploadedEvent event) {
+        try {
+            String imageUrl = mediaStorageService.publish(event.upload());
+            // An existing blob (same content uploaded before) already has its derivatives
+            if (!derivativeService.hasDerivatives(imageUrl)) {
+                generateDerivatives(imageUrl);
+            }
+            if (!attach(event.owner(), event.ownerId(), imageUrl, ImageStatus.READY)) {
+                // Deleted while the image was queued
+                garbageCollector.release(imageUrl);
+                return;
+            }
+            // Re-uploading the same content yields the same URL, which is still referenced
+            if (event.previousImageUrl() != null && !event.previousImageUrl().equals(imageUrl)) {
+                garbageCollector.release(event.previousImageUrl());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Processing image for {} {} failed", event.owner(), event.ownerId(), e);
+            discard(event);
+            attach(event.owner(), event.ownerId(), null, ImageStatus.FAILED);
+        }
+    }
+
+    // The row was never committed, so nobody will process the staged file
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onUploadRolledBack(ImageUploadedEvent event) {
+        discard(event);
+    }
+
+    // Returns false when the owner no longer exists; a null imageUrl keeps the current image
+    private boolean attach(ImageUploadedEvent.Owner owner, UUID id, String imageUrl, ImageStatus status) {
+        if (owner == ImageUploadedEvent.Owner.BOOK) {
+            Book book = bookRepository.findById(id).orElse(null);
+            if (book == null) {
+                return false;
+            }
+            if (imageUrl != null) {
+                book.setImageUrl(imageUrl);
+            }
+            book.setImageStatus(status);
+            bookRepository.save(book);
+            cacheInvalidator.rowUpdated("books", id, CatalogueCacheInvalidator.tag("book", id));
+            searchService.index(BookSearchDocument.of(book));
+        } else {
+            Author author = authorRepository.findById(id).orElse(null);
+            if (author == null) {
+                return false;
+            }
+            if (imageUrl != null) {
+                author.setImageUrl(imageUrl);
+            }
+            author.setImageStatus(status);
+            authorRepository.save(author);
+            cacheInvalidator.rowUpdated("authors", id, CatalogueCacheInvalidator.tag("author", id));
+        }
+        return true;
+    }
+
+    // A missing thumbnail only means pages fall back to the original, so it never fails the upload
+    private void generateDerivatives(String imageUrl) {
+        try {
+            derivativeService.generate(imageUrl);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate derivatives for {}", imageUrl, e);
+        }
+    }
+
+    private void discard(ImageUploadedEvent event) {
+        try {
+            mediaStorageService.discard(event.upload());
+        } catch (IOException e) {
+            logger.warn("Could not delete staged upload {}", event.upload().path(), e);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package bookstore.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Stores uploaded images under uploads/ without buffering them on the heap.
+ *
+ * The multipart stream is copied through a fixed 64KB direct buffer into a temp file in the
+ * staging directory. The first bytes are checked against the image signatures we accept and
+ * the size limit is enforced while copying, so a bad upload is rejected before it is fully
+ * read. Only a complete, valid file is moved into place (atomically where the filesystem
+ * allows), so readers never see a partial image.
+ *
+ * Images are content addressed: the SHA-256 computed during the copy names the file
+ * ("/uploads/blobs/ab/cd/abcd....png"), so the same cover uploaded for several books is
+ * stored once and a URL always denotes the same bytes. Blobs may be shared and are only
+ * deleted by MediaGarbageCollector once no book or author refers to them.
+ */
+@Service
+public class MediaStorageService {
+
+    public static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SIGNATURE_LENGTH = 12;
+    // Outside uploads/ so half-processed files are never served, but on the same filesystem
+    private static final String STAGING_DIR = "uploads-staging";
+    public static final String BLOB_DIR = "uploads/blobs";
+
+    // A validated upload waiting to be moved into place, with the hex SHA-256 of its content
+    public record StagedUpload(Path path, String sha256, String extension) {}
+
+    // Everything lives under root (the working directory in production)
+    private final Path root;
+
+    @Autowired
+    public MediaStorageService() {
+        this(Paths.get(""));
+    }
+
+    // For tests: a different root directory
+    public MediaStorageService(Path root) {
+        this.root = root;
+    }
+
+    // Store the upload as a blob and return its public URL
+    public String storeImage(MultipartFile file) throws IOException {
+        return publish(stage(file));
+    }
+
+    // Copy and validate the upload into the staging area. Runs on the request thread because the
+    // multipart temp file is gone once the request completes; everything else can happen later.
+    public StagedUpload stage(MultipartFile file) throws IOException {
+        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            throw new IllegalArgumentException("Uploaded file must be an image.");
+        }
+        if (file.getSize() > MAX_IMAGE_SIZE) {
+            throw new IllegalArgumentException("File size must not exceed 5MB.");
+        }
+
+        Path stagingDir = root.resolve(STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path temp = Files.createTempFile(stagingDir, "upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            return copyValidated(in, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Move a staged upload to its blob path and return the public URL. When the blob already
+    // exists the copy is dropped and the blob's timestamp refreshed, which keeps the garbage
+    // collector's grace period from reclaiming it before the new owner row is attached.
+    public String publish(StagedUpload staged) throws IOException {
+        String url = blobUrl(staged.sha256(), staged.extension());
+        Path target = resolve(url);
+        try {
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(staged.path(), target);
+            }
+        } finally {
+            discard(staged);
+        }
+        return url;
+    }
+
+    public void discard(StagedUpload staged) throws IOException {
+        Files.deleteIfExists(staged.path());
+    }
+
+    // "/uploads/blobs/ab/cd/abcd...<ext>": two levels of fan-out keep directories small
+    public static String blobUrl(String sha256, String extension) {
+        return "/" + BLOB_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    public static boolean isBlob(String url) {
+        return url != null && url.startsWith("/" + BLOB_DIR + "/");
+    }
+
+    // Filesystem path of a public URL ("/uploads/...")
+    public Path resolve(String url) {
+        return root.resolve(url.startsWith("/") ? url.substring(1) : url);
+    }
+
+    // Delete a stored image and its derivatives by public URL; missing files are ignored. Blobs
+    // can be shared, so callers go through MediaGarbageCollector rather than calling this.
+    public void deleteImage(String url) throws IOException {
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        Files.deleteIfExists(resolve(url));
+        for (ImageDerivativeService.Size size : ImageDerivativeService.Size.values()) {
+            Files.deleteIfExists(resolve(ImageDerivativeService.derivativeUrl(url, size)));
+        }
+    }
+
+    private static StagedUpload copyValidated(InputStream in, Path temp) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        int signatureRead = 0;
+        long written = 0;
+        MessageDigest digest = sha256();
+
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel sink = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (signatureRead < SIGNATURE_LENGTH) {
+                    int take = Math.min(SIGNATURE_LENGTH - signatureRead, buffer.remaining());
+                    buffer.duplicate().get(signature, signatureRead, take);
+                    signatureRead += take;
+                    if (signatureRead == SIGNATURE_LENGTH && !isImage(signature)) {
+                        throw new IllegalArgumentException("Uploaded file is not a supported image.");
+                    }
+                }
+                written += buffer.remaining();
+                if (written > MAX_IMAGE_SIZE) {
+                    // The declared size can lie; stop as soon as the real stream exceeds the limit
+                    throw new IllegalArgumentException("File size must not exceed 5MB.");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    sink.write(buffer);
+                }
+                buffer.clear();
+            }
+            sink.force(false);
+        }
+        String extension = extension(Arrays.copyOf(signature, signatureRead));
+        if (extension == null) {
+            throw new IllegalArgumentException("Uploaded file is not a supported image.");
+        }
+        return new StagedUpload(temp, HexFormat.of().formatHex(digest.digest()), extension);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // JPEG, PNG, GIF and WebP, identified by their leading bytes rather than the client's content type
+    static boolean isImage(byte[] header) {
+        return extension(header) != null;
+    }
+
+    // The blob extension for a supported signature, null otherwise
+    static String extension(byte[] header) {
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) {
+            return ".jpg";
+        }
+        if (startsWith(header, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return ".png";
+        }
+        if (startsWith(header, 'G', 'I', 'F', '8', '7', 'a') || startsWith(header, 'G', 'I', 'F', '8', '9', 'a')) {
+            return ".gif";
+        }
+        if (startsWith(header, 'R', 'I', 'F', 'F') && header.length >= 12
+                && new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+            return ".webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int... expected) {
+        if (header.length < expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((header[i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package bookstore.util;
+
+import bookstore.dto.BookImportRow;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Reads an import file one row at a time, so the file is never held in memory.
+// CSV needs a header row naming the columns (any order, case-insensitive; quoted fields may
+// contain commas, doubled quotes and line breaks). JSON is either one top-level array of
+// objects or newline-delimited objects.
+public class BookImportReader implements Iterator<BookImportRow>, Closeable {
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format fromFileName(String fileName) {
+            String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Unsupported import file: " + fileName + " (expected .csv, .json or .ndjson)");
+        }
+    }
+
+    private final Closeable source;
+    private final Iterator<BookImportRow> rows;
+
+    private BookImportReader(Closeable source, Iterator<BookImportRow> rows) {
+        this.source = source;
+        this.rows = rows;
+    }
+
+    public static BookImportReader open(InputStream in, Format format, ObjectMapper objectMapper) throws IOException {
+        if (format == Format.JSON) {
+            MappingIterator<BookImportRow> rows = objectMapper.readerFor(BookImportRow.class).readValues(in);
+            return new BookImportReader(rows, rows);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new BookImportReader(reader, new CsvRows(reader));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext();
+    }
+
+    // Malformed input surfaces as an unchecked exception and ends the import
+    @Override
+    public BookImportRow next() {
+        return rows.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private static final class CsvRows implements Iterator<BookImportRow> {
+
+        private final Reader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private List<String> next;
+
+        CsvRows(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("The CSV file is empty");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                // Excel writes a byte order mark in front of the first column name
+                String name = header.get(i).replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT).replace("_", "");
+                columns.put(name, i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new IllegalArgumentException("The CSV header has no 'title' column");
+            }
+            next = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public BookImportRow next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> record = next;
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new BookImportRow(field(record, "title"), field(record, "isbn"), field(record, "author"),
+                    field(record, "category"), field(record, "description"), field(record, "publisheddate"));
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= record.size() ? null : record.get(index);
+        }
+
+        // One RFC 4180 record, or null at the end of the input. Blank lines are skipped.
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (fields.isEmpty() && field.isEmpty()) {
+                        any = false;
+                        continue;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field in the CSV file");
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package bookstore.util;
+
+// Names the code running on the current thread (e.g. "BookController#listBooks") so pool
+// metrics and slow-connection warnings can say who took a connection. Set per request by
+// ConnectionOwnerInterceptor, or around a block of background work with run(); otherwise
+// the thread name stands in.
+public final class ConnectionOwner {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ConnectionOwner() {
+    }
+
+    public static String current() {
+        String owner = CURRENT.get();
+        return owner != null ? owner : "thread:" + Thread.currentThread().getName();
+    }
+
+    public static void set(String owner) {
+        CURRENT.set(owner);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void run(String owner, Runnable action) {
+        String previous = CURRENT.get();
+        CURRENT.set(owner);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bookstore.util;
+
+import bookstore.dto.BookSummary;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.ISpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Template helper: th:utext="${@fragments.bookCard(book)}" renders book/fragments :: card once
+// per distinct row and reuses the HTML. The key is the row itself (records compare by value),
+// so an edited book simply misses and no invalidation is needed; the "fragments" cache region
+// bounds the memory. Only user-independent markup may live in these fragments.
+@Component("fragments")
+public class FragmentCache {
+
+    public static final String CACHE = "fragments";
+
+    private record Key(String fragment, Object row, Locale locale) {}
+
+    private final ISpringTemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final Cache cache;
+
+    @Autowired
+    public FragmentCache(ISpringTemplateEngine templateEngine, ApplicationContext applicationContext,
+                         CacheManager cacheManager) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        this.cache = cacheManager.getCache(CACHE);
+    }
+
+    public String bookCard(BookSummary book) {
+        return render("book/fragments", "card", "book", book);
+    }
+
+    private String render(String template, String fragment, String variable, Object row) {
+        Locale locale = LocaleContextHolder.getLocale();
+        return cache.get(new Key(template + "::" + fragment, row, locale), () -> {
+            Context context = new Context(locale);
+            context.setVariable(variable, row);
+            // Lets the fragment use bean references such as @images
+            context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                    new ThymeleafEvaluationContext(applicationContext, null));
+            return templateEngine.process(template, Set.of(fragment), context);
+        });
+    }
+}
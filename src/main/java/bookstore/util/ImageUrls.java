@@ -0,0 +1,36 @@
+package bookstore.util;
+
+import bookstore.service.ImageDerivativeService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// Template helper: th:src="@{${@images.url(book.imageUrl, 'thumb')}}" picks the derivative of
+// the requested size and falls back to the original while none exists (pending or unsupported)
+@Component("images")
+public class ImageUrls {
+
+    private final ImageDerivativeService derivativeService;
+
+    @Autowired
+    public ImageUrls(ImageDerivativeService derivativeService) {
+        this.derivativeService = derivativeService;
+    }
+
+    public String url(String imageUrl, String size) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return imageUrl;
+        }
+        ImageDerivativeService.Size derivative;
+        try {
+            derivative = ImageDerivativeService.Size.valueOf(size.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return imageUrl;
+        }
+        return derivativeService.hasDerivatives(imageUrl)
+                ? ImageDerivativeService.derivativeUrl(imageUrl, derivative)
+                : imageUrl;
+    }
+}
@@ -0,0 +1,124 @@
+package bookstore.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-bucket latency histogram, cheap enough to record on every connection checkout.
+// Percentiles are the upper bound of the bucket they fall in, which is all the pool metrics
+// and the adaptive pool sizing need.
+public class LatencyHistogram {
+
+    // Upper bounds in microseconds; the last bucket takes everything slower
+    private static final long[] BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+            250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000, 30_000_000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long micros = nanos / 1_000;
+        int i = 0;
+        while (i < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void recordMillis(long millis) {
+        record(millis * 1_000_000);
+    }
+
+    // Cumulative per-bucket counts; subtract two of them to get the counts for an interval
+    public long[] counts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long count() {
+        long count = 0;
+        for (long bucket : counts()) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    public Duration mean() {
+        long count = count();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    public Duration percentile(double p) {
+        return percentile(counts(), p);
+    }
+
+    // p in (0, 1]; zero when nothing was recorded. Anything past the last bound reports as
+    // that bound, so "at least 30s".
+    public static Duration percentile(long[] counts, double p) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        long rank = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(BOUNDS_MICROS[Math.min(i, BOUNDS_MICROS.length - 1)] * 1_000);
+            }
+        }
+        return Duration.ofNanos(BOUNDS_MICROS[BOUNDS_MICROS.length - 1] * 1_000);
+    }
+
+    public static long[] difference(long[] now, long[] before) {
+        long[] delta = new long[now.length];
+        for (int i = 0; i < now.length; i++) {
+            delta[i] = now[i] - (before == null ? 0 : before[i]);
+        }
+        return delta;
+    }
+
+    // "le_1ms" -> count, in bucket order, for the metrics endpoint
+    public Map<String, Long> buckets() {
+        long[] counts = counts();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            result.put("le_" + label(BOUNDS_MICROS[i]), counts[i]);
+        }
+        result.put("gt_" + label(BOUNDS_MICROS[BOUNDS_MICROS.length - 1]), counts[BOUNDS_MICROS.length]);
+        return result;
+    }
+
+    private static String label(long micros) {
+        if (micros < 1_000) {
+            return micros + "us";
+        }
+        if (micros < 1_000_000) {
+            return (micros % 1_000 == 0 ? String.valueOf(micros / 1_000) : String.valueOf(micros / 1_000.0)) + "ms";
+        }
+        return (micros % 1_000_000 == 0 ? String.valueOf(micros / 1_000_000) : String.valueOf(micros / 1_000_000.0)) + "s";
+    }
+}
@@ -0,0 +1,67 @@
+package bookstore.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The "fields=title,isbn" selection of the JSON API over a projection record. The record
+// components are looked up once per request, then each row is read through them; "id" is
+// always included so clients can follow up on a row.
+public final class SparseFieldset<T extends Record> {
+
+    private final List<RecordComponent> selected;
+
+    private SparseFieldset(List<RecordComponent> selected) {
+        this.selected = selected;
+    }
+
+    // Blank selects every field; unknown names are rejected rather than silently dropped
+    public static <T extends Record> SparseFieldset<T> of(Class<T> type, String fields) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (fields == null || fields.isBlank()) {
+            return new SparseFieldset<>(List.of(components));
+        }
+        List<String> requested = Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toList();
+        for (String name : requested) {
+            if (Arrays.stream(components).noneMatch(component -> component.getName().equals(name))) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+        List<RecordComponent> selected = new ArrayList<>();
+        for (RecordComponent component : components) {
+            if (component.getName().equals("id") || requested.contains(component.getName())) {
+                selected.add(component);
+            }
+        }
+        return new SparseFieldset<>(List.copyOf(selected));
+    }
+
+    public List<String> names() {
+        return selected.stream().map(RecordComponent::getName).toList();
+    }
+
+    // Selected fields in declaration order
+    public Map<String, Object> apply(T row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (RecordComponent component : selected) {
+            values.put(component.getName(), read(component, row));
+        }
+        return values;
+    }
+
+    public List<Map<String, Object>> apply(List<T> rows) {
+        return rows.stream().map(this::apply).toList();
+    }
+
+    private static Object read(RecordComponent component, Record row) {
+        try {
+            return component.getAccessor().invoke(row);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + component.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+-- The schema spring.jpa.hibernate.ddl-auto=update generated from the entities before the
+-- migrations took over. Databases that already have it are baselined at this version
+-- (spring.flyway.baseline-version=1) and continue with V2.
+
+create table roles (
+    id binary(16) not null,
+    name varchar(255) not null,
+    constraint pk_roles primary key (id),
+    constraint uk_roles_name unique (name)
+) engine=InnoDB;
+
+create table users (
+    id binary(16) not null,
+    email varchar(255) not null,
+    username varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    enabled bit not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id binary(16) not null,
+    role_id binary(16) not null,
+    constraint pk_user_roles primary key (user_id, role_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+) engine=InnoDB;
+
+create table authors (
+    id binary(16) not null,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    gender varchar(255) not null,
+    biography varchar(255) not null,
+    image_url varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    constraint pk_authors primary key (id),
+    constraint uk_authors_email unique (email)
+) engine=InnoDB;
+
+create table category (
+    id binary(16) not null,
+    name varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    constraint pk_category primary key (id)
+) engine=InnoDB;
+
+create table book (
+    id binary(16) not null,
+    title varchar(255) not null,
+    isbn varchar(255) not null,
+    is_borrowed bit not null,
+    image_url varchar(255),
+    published_date datetime(6),
+    description varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    author_id binary(16),
+    category_id binary(16),
+    constraint pk_book primary key (id),
+    constraint uk_book_title unique (title),
+    constraint uk_book_isbn unique (isbn),
+    constraint fk_book_author foreign key (author_id) references authors (id),
+    constraint fk_book_category foreign key (category_id) references category (id)
+) engine=InnoDB;
+
+create table password_reset_tokens (
+    id binary(16) not null,
+    token varchar(255),
+    user_id binary(16),
+    expiry_date datetime(6),
+    constraint pk_password_reset_tokens primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,38 @@
+-- Entity changes made after the V1 schema: media pipeline status on books and authors, the
+-- keyset listing indexes and the bulk import jobs. A database baselined at V1 gets them here.
+
+-- Upload lifecycle (ImageStatus); rows that never had an upload stay null
+alter table book add column image_status varchar(16);
+alter table authors add column image_status varchar(16);
+
+-- Keyset pagination on (created_at, id), the listing sort key
+create index idx_book_created_at_id on book (created_at, id);
+create index idx_authors_created_at_id on authors (created_at, id);
+create index idx_category_created_at_id on category (created_at, id);
+
+-- Bulk imports (ImportJob) and their rejected rows
+create table import_jobs (
+    id binary(16) not null,
+    file_name varchar(255) not null,
+    checksum varchar(64) not null,
+    status varchar(16) not null,
+    chunk_size integer not null,
+    rows_processed bigint not null,
+    rows_imported bigint not null,
+    rows_rejected bigint not null,
+    failure_message varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    constraint pk_import_jobs primary key (id)
+) engine=InnoDB;
+
+create index idx_import_jobs_checksum on import_jobs (checksum);
+
+create table import_job_errors (
+    job_id binary(16) not null,
+    error_order integer not null,
+    row_index bigint not null,
+    message varchar(255) not null,
+    constraint pk_import_job_errors primary key (job_id, error_order),
+    constraint fk_import_job_errors_job foreign key (job_id) references import_jobs (id)
+) engine=InnoDB;
@@ -0,0 +1,18 @@
+-- Indexes behind the repository finders that ddl-auto never created. book.title, book.isbn,
+-- users.email, users.username, authors.email and roles.name are already indexed by their
+-- unique constraints. QueryPlanTest checks the finders against these.
+
+-- findByAuthor_Id / findByCategory_Id and the search-index refreshes per author or category
+create index idx_book_author_id on book (author_id);
+create index idx_book_category_id on book (category_id);
+
+-- countByImageUrl when an image blob is released; the index alone answers the count
+create index idx_book_image_url on book (image_url);
+create index idx_authors_image_url on authors (image_url);
+
+-- Author and category lookups by name (admin forms, bulk import, category seeding)
+create index idx_authors_name on authors (name);
+create index idx_category_name on category (name);
+
+-- Password reset links are looked up and deleted by token
+create index idx_password_reset_tokens_token on password_reset_tokens (token);
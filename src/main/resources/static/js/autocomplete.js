@@ -0,0 +1,69 @@
+// Typeahead for inputs marked with data-autocomplete (value: "author", "book" or empty for both).
+// With data-autocomplete-target the chosen suggestion's id is written to that hidden input,
+// otherwise picking a suggestion submits the surrounding form.
+document.addEventListener('DOMContentLoaded', function () {
+    document.querySelectorAll('input[data-autocomplete]').forEach(function (input) {
+        var type = input.dataset.autocomplete;
+        var target = input.dataset.autocompleteTarget ? document.getElementById(input.dataset.autocompleteTarget) : null;
+        var list = document.createElement('ul');
+        var timer;
+        var latest = 0;
+
+        list.className = 'absolute z-10 bg-white border w-full hidden';
+        input.parentNode.style.position = 'relative';
+        input.parentNode.appendChild(list);
+        input.setAttribute('autocomplete', 'off');
+
+        input.addEventListener('input', function () {
+            if (target) {
+                target.value = '';
+            }
+            clearTimeout(timer);
+            timer = setTimeout(function () {
+                fetchSuggestions(input.value);
+            }, 150);
+        });
+
+        input.addEventListener('blur', function () {
+            list.classList.add('hidden');
+        });
+
+        function fetchSuggestions(query) {
+            if (query.trim() === '') {
+                list.classList.add('hidden');
+                return;
+            }
+            var request = ++latest;
+            var url = '/books/autocomplete?q=' + encodeURIComponent(query) + (type ? '&type=' + encodeURIComponent(type) : '');
+            fetch(url)
+                .then(function (response) { return response.json(); })
+                .then(function (suggestions) {
+                    // Ignore answers to keystrokes that have since been superseded
+                    if (request === latest) {
+                        render(suggestions);
+                    }
+                });
+        }
+
+        function render(suggestions) {
+            list.innerHTML = '';
+            suggestions.forEach(function (suggestion) {
+                var item = document.createElement('li');
+                item.className = 'px-2 py-1 cursor-pointer hover:bg-blue-100';
+                item.textContent = suggestion.label;
+                item.addEventListener('mousedown', function (event) {
+                    event.preventDefault();
+                    input.value = suggestion.label;
+                    list.classList.add('hidden');
+                    if (target) {
+                        target.value = suggestion.id;
+                    } else if (input.form) {
+                        input.form.submit();
+                    }
+                });
+                list.appendChild(item);
+            });
+            list.classList.toggle('hidden', suggestions.length === 0);
+        }
+    });
+});
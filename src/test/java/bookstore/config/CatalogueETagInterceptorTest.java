@@ -0,0 +1,75 @@
+package bookstore.config;
+
+import bookstore.service.CatalogueCacheInvalidator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueETagInterceptorTest {
+
+    private final CatalogueCacheInvalidator invalidator = new CatalogueCacheInvalidator(new ConcurrentMapCacheManager());
+    private final CatalogueETagInterceptor interceptor = new CatalogueETagInterceptor(invalidator);
+
+    @Test
+    void unchangedCatalogueIsNotModified() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(null), first, null)).isTrue();
+        String etag = first.getHeader("ETag");
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("private, no-cache");
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), second, null)).isFalse();
+        assertThat(second.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void aCommittedWriteChangesTheTag() {
+        String before = interceptor.etag(get(null));
+
+        // No transaction here, so the write callback runs immediately
+        invalidator.rowUpdated("books", UUID.randomUUID(), "book:x");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(before), response, null)).isTrue();
+        assertThat(response.getHeader("ETag")).isNotEqualTo(before);
+    }
+
+    @Test
+    void differentUsersGetDifferentTags() {
+        MockHttpServletRequest alice = get(null);
+        alice.setUserPrincipal(() -> "alice@example.com");
+        MockHttpServletRequest bob = get(null);
+        bob.setUserPrincipal(() -> "bob@example.com");
+
+        assertThat(interceptor.etag(alice)).isNotEqualTo(interceptor.etag(bob));
+    }
+
+    @Test
+    void pagesWithFlashMessagesAreAlwaysRendered() {
+        MockHttpServletRequest request = get(interceptor.etag(get(null)));
+        FlashMap flash = new FlashMap();
+        flash.put("successMessage", "Book deleted");
+        request.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, flash);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader("ETag")).isNull();
+    }
+
+    private static MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/list");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package bookstore.config;
+
+import bookstore.util.ConnectionOwner;
+import bookstore.util.LatencyHistogram;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A real Hikari pool over an in-memory H2 database, instrumented the way PoolConfig does it
+class PoolMetricsTest {
+
+    private final PoolMetrics metrics = new PoolMetrics(Duration.ofSeconds(30));
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("test");
+        dataSource.setMaximumPoolSize(2);
+        metrics.instrument(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordsCheckoutsPerOwner() {
+        ConnectionOwner.run("BookController#listBooks", this::borrow);
+        ConnectionOwner.run("BookController#listBooks", this::borrow);
+        ConnectionOwner.run("AuthorController#listAuthors", this::borrow);
+
+        assertThat(dataSource.getLeakDetectionThreshold()).isEqualTo(30_000);
+        Map<String, Object> pool = (Map<String, Object>) metrics.snapshot().get("test");
+        assertThat(pool).containsEntry("maxSize", 2).containsEntry("timeouts", 0L);
+        assertThat((Map<String, Object>) pool.get("acquireTime")).containsEntry("count", 3L);
+        Map<String, Map<String, Object>> owners = (Map<String, Map<String, Object>>) pool.get("owners");
+        assertThat(owners.get("BookController#listBooks")).containsEntry("checkouts", 2L);
+        assertThat(owners.get("AuthorController#listAuthors")).containsEntry("checkouts", 1L);
+    }
+
+    @Test
+    void keepsAnExplicitLeakDetectionThreshold() {
+        HikariDataSource configured = new HikariDataSource();
+        configured.setLeakDetectionThreshold(5_000);
+        new PoolMetrics(Duration.ofSeconds(30)).instrument(configured);
+        assertThat(configured.getLeakDetectionThreshold()).isEqualTo(5_000);
+        configured.close();
+    }
+
+    @Test
+    void percentilesReportTheBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 95; i++) {
+            histogram.record(Duration.ofMillis(1).toNanos());
+        }
+        for (int i = 0; i < 5; i++) {
+            histogram.record(Duration.ofMillis(40).toNanos());
+        }
+        assertThat(histogram.percentile(0.50)).isEqualTo(Duration.ofMillis(1));
+        assertThat(histogram.percentile(0.99)).isEqualTo(Duration.ofMillis(50));
+        assertThat(histogram.max()).isEqualTo(Duration.ofMillis(40));
+        assertThat(LatencyHistogram.percentile(new long[histogram.counts().length], 0.95)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void autoSizerGrowsOnSlowCheckoutsAndShrinksWhenIdle() {
+        Duration target = Duration.ofMillis(20);
+        // waits above target, or any timeout: grow by a quarter, capped at the ceiling
+        assertThat(PoolAutoSizer.nextSize(10, 10, 40, Duration.ofMillis(50), 0, 100, 0, target)).isEqualTo(12);
+        assertThat(PoolAutoSizer.nextSize(38, 10, 40, Duration.ofMillis(1), 3, 100, 0, target)).isEqualTo(40);
+        // quiet and mostly idle: shrink, never below the configured size
+        assertThat(PoolAutoSizer.nextSize(16, 10, 40, Duration.ofMillis(1), 0, 100, 12, target)).isEqualTo(14);
+        assertThat(PoolAutoSizer.nextSize(10, 10, 40, Duration.ZERO, 0, 0, 10, target)).isEqualTo(10);
+        // in between: leave it alone
+        assertThat(PoolAutoSizer.nextSize(16, 10, 40, Duration.ofMillis(10), 0, 100, 2, target)).isEqualTo(16);
+    }
+
+    private void borrow() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.isValid(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
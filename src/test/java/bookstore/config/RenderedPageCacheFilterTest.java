@@ -0,0 +1,97 @@
+package bookstore.config;
+
+import bookstore.service.CatalogueCacheInvalidator;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedPageCacheFilterTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(new CacheSettings());
+    private final CatalogueCacheInvalidator invalidator = new CatalogueCacheInvalidator(cacheManager);
+    private final RenderedPageCacheFilter filter = new RenderedPageCacheFilter(invalidator, cacheManager);
+    private final AtomicInteger renders = new AtomicInteger();
+    private boolean createSession;
+
+    @Test
+    void anonymousPagesAreRenderedOnce() throws Exception {
+        MockHttpServletResponse first = get(anonymous());
+        MockHttpServletResponse second = get(anonymous());
+
+        assertThat(renders).hasValue(1);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("page 1");
+        assertThat(second.getContentType()).startsWith("text/html");
+    }
+
+    @Test
+    void aCatalogueWriteForcesAFreshRender() throws Exception {
+        get(anonymous());
+        invalidator.rowAdded("books");
+
+        assertThat(get(anonymous()).getContentAsString()).isEqualTo("page 2");
+    }
+
+    @Test
+    void signedInUsersAreNeverServedFromTheCache() throws Exception {
+        get(anonymous());
+        MockHttpServletRequest signedIn = anonymous();
+        signedIn.setUserPrincipal(() -> "admin@example.com");
+
+        get(signedIn);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void rendersThatStartASessionAreNotStored() throws Exception {
+        createSession = true;
+        get(anonymous());
+        createSession = false;
+        get(anonymous());
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void otherPathsAreLeftAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/edit/" + UUID.randomUUID());
+        get(request);
+        get(request);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    private static MockHttpServletRequest anonymous() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books/list");
+        request.setQueryString("page=1");
+        return request;
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                if (createSession) {
+                    req.getSession();
+                }
+                resp.setContentType("text/html;charset=UTF-8");
+                resp.getWriter().write("page " + renders.incrementAndGet());
+            }
+        }));
+        return response;
+    }
+}
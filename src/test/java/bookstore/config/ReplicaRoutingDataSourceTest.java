@@ -0,0 +1,150 @@
+package bookstore.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A primary and two "replicas" as separate in-memory H2 databases, each holding a row with
+// its own name, wired the way DataSourceRoutingConfig wires them. Which database answered
+// tells where a transaction was routed.
+class ReplicaRoutingDataSourceTest {
+
+    private final String run = UUID.randomUUID().toString();
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private ReplicaRoutingDataSource router;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replicas.put("replica-1", database("replica-1"));
+        replicas.put("replica-2", database("replica-2"));
+        router = new ReplicaRoutingDataSource(primary, replicas, Duration.ofMillis(200));
+
+        dataSource = new LazyConnectionDataSourceProxy(router);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverTheReplicas() {
+        Set<String> answeredBy = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            answeredBy.add(readOnly.execute(status -> server()));
+        }
+        assertThat(answeredBy).containsExactlyInAnyOrder("replica-1", "replica-2");
+    }
+
+    @Test
+    void writesAndNonTransactionalCallsUseThePrimary() {
+        assertThat(readWrite.execute(status -> server())).isEqualTo("primary");
+        assertThat(server()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnThePrimaryForMaxLagAfterAWrite() throws InterruptedException {
+        readWrite.execute(status -> server());
+        assertThat(readOnly.execute(status -> server())).isEqualTo("primary");
+
+        Thread.sleep(250);
+        assertThat(readOnly.execute(status -> server())).startsWith("replica-");
+    }
+
+    @Test
+    void unhealthyReplicasAreSkippedAndThePrimaryIsTheLastResort() {
+        // replica-1 claims to be a minute behind
+        ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(router, replicas,
+                "select lag_seconds from server", Duration.ofSeconds(5));
+        new JdbcTemplate(replicas.get("replica-1")).update("update server set lag_seconds = 60");
+        monitor.check();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(readOnly.execute(status -> server())).isEqualTo("replica-2");
+        }
+
+        router.setHealthy("replica-2", false);
+        assertThat(readOnly.execute(status -> server())).isEqualTo("primary");
+
+        new JdbcTemplate(replicas.get("replica-1")).update("update server set lag_seconds = 0");
+        monitor.check();
+        assertThat(router.healthyReplicas()).containsExactly("replica-1", "replica-2");
+    }
+
+    @Test
+    void aWriteAfterAReadOnlyLookupInTheSameSessionGoesToThePrimary() {
+        // One session for the whole "request", as open-session-in-view binds it
+        Map<String, Object> properties = new HashMap<>();
+        new DataSourceRoutingConfig().connectionHandlingHibernateProperties().customize(properties);
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(getClass().getPackageName());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory factory = factoryBean.getObject();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        TransactionTemplate jpaReadWrite = new TransactionTemplate(new JpaTransactionManager(factory));
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(new JpaTransactionManager(factory));
+        jpaReadOnly.setReadOnly(true);
+
+        TransactionSynchronizationManager.bindResource(factory, new EntityManagerHolder(factory.createEntityManager()));
+        try {
+            // e.g. CategoryService.updateCategory: findById, then save
+            assertThat(jpaReadOnly.execute(status -> entityManager
+                    .createNativeQuery("select name from server").getSingleResult())).asString().startsWith("replica-");
+            assertThat(jpaReadWrite.execute(status -> {
+                entityManager.createNativeQuery("update server set lag_seconds = 1").executeUpdate();
+                return entityManager.createNativeQuery("select name from server").getSingleResult();
+            })).isEqualTo("primary");
+        } finally {
+            ((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(factory)).getEntityManager().close();
+            factoryBean.destroy();
+        }
+        for (DataSource replica : replicas.values()) {
+            assertThat(new JdbcTemplate(replica).queryForObject("select lag_seconds from server", Integer.class)).isZero();
+        }
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("select name from server", String.class);
+    }
+
+    private DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + run + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table server (name varchar(32), lag_seconds int)");
+        jdbc.update("insert into server values (?, 0)", name);
+        return dataSource;
+    }
+}
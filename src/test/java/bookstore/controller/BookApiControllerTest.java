@@ -0,0 +1,143 @@
+package bookstore.controller;
+
+import bookstore.dto.BookSummary;
+import bookstore.dto.CursorPage;
+import bookstore.exception.ApiExceptionHandler;
+import bookstore.repository.BookRepository;
+import bookstore.service.BookSearchService;
+import bookstore.service.BookService;
+import bookstore.service.CatalogueExportService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BookApiControllerTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private MockMvc mockMvc;
+
+    private final BookSummary dune = new BookSummary(UUID.randomUUID(), "Dune", "9780441013593", null, false,
+            UUID.randomUUID(), "Frank Herbert", UUID.randomUUID(), "Science Fiction", new Date());
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new BookApiController(bookService, mock(BookSearchService.class),
+                        new CatalogueExportService(bookRepository, new ObjectMapper()), 2))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void listsAPageWithOnlyTheRequestedFields() throws Exception {
+        when(bookService.getBooksAfter(null)).thenReturn(new CursorPage<>(List.of(dune), "next-token"));
+
+        mockMvc.perform(get("/api/v1/books").param("fields", "title,authorName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(dune.id().toString()))
+                .andExpect(jsonPath("$.data[0].title").value("Dune"))
+                .andExpect(jsonPath("$.data[0].authorName").value("Frank Herbert"))
+                .andExpect(jsonPath("$.data[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndMalformedCursors() throws Exception {
+        mockMvc.perform(get("/api/v1/books").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/books").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void missingBookIsNotFound() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(bookService.findBookById(id)).thenThrow(new IllegalArgumentException("Invalid book ID"));
+
+        mockMvc.perform(get("/api/v1/books/" + id))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Invalid book ID"));
+    }
+
+    @Test
+    void unexpectedErrorsDoNotLeakTheirMessage() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(bookService.findBookById(id)).thenThrow(new IllegalStateException("could not execute statement [select * from book]"));
+
+        mockMvc.perform(get("/api/v1/books/" + id))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.detail").value("An unexpected error occurred"));
+    }
+
+    @Test
+    void exportStreamsEveryRowAsAJsonArray() throws Exception {
+        when(bookRepository.streamSummariesOldestFirst()).thenReturn(Stream.of(dune, dune));
+
+        mockMvc.perform(get("/api/v1/books/export").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].title").value("Dune"));
+    }
+
+    @Test
+    void exportWritesCsvAndNdjsonRows() throws Exception {
+        when(bookRepository.streamSummariesOldestFirst()).thenReturn(Stream.of(dune), Stream.of(dune));
+
+        mockMvc.perform(get("/api/v1/books/export").param("format", "csv").param("fields", "title,authorName"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.csv\""))
+                .andExpect(content().string("id,title,authorName\r\n" + dune.id() + ",Dune,Frank Herbert\r\n"));
+        mockMvc.perform(get("/api/v1/books/export").param("format", "ndjson").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":\"" + dune.id() + "\",\"title\":\"Dune\"}\n"));
+    }
+
+    @Test
+    void csvCellsThatASpreadsheetWouldEvaluateAreEscaped() throws Exception {
+        BookSummary formula = new BookSummary(UUID.randomUUID(), "=HYPERLINK(\"http://evil\",\"x\")", "isbn-1", null,
+                false, UUID.randomUUID(), "@SUM(A1)", UUID.randomUUID(), "-1+1", new Date());
+        when(bookRepository.streamSummariesOldestFirst()).thenReturn(Stream.of(formula));
+
+        mockMvc.perform(get("/api/v1/books/export").param("format", "csv").param("fields", "title,authorName,categoryName"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,title,authorName,categoryName\r\n" + formula.id()
+                        + ",\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",'@SUM(A1),'-1+1\r\n"));
+    }
+
+    @Test
+    void unknownExportFormatIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportsBeyondTheConcurrencyLimitAreTurnedAway() throws Exception {
+        MockMvc noPermits = MockMvcBuilders
+                .standaloneSetup(new BookApiController(bookService, mock(BookSearchService.class),
+                        new CatalogueExportService(bookRepository, new ObjectMapper()), 0))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        noPermits.perform(get("/api/v1/books/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "60"));
+    }
+}
@@ -0,0 +1,106 @@
+package bookstore.controller;
+
+import bookstore.service.MediaStorageService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput of MediaController against the ResourceHttpRequestHandler that used to serve
+// /uploads/**, on the same files and mock request/response objects. Not part of the normal
+// build: run with "mvn test -Pbenchmark". Prints a table; only response codes are asserted.
+@Tag("benchmark")
+class MediaControllerBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+    private static final String COVER = MediaStorageService.blobUrl("cd".repeat(32), ".jpg");
+    private static final String THUMB = MediaStorageService.blobUrl("ef".repeat(32), ".jpg");
+
+    @TempDir
+    Path root;
+
+    private MediaController controller;
+    private ResourceHttpRequestHandler legacyHandler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MediaStorageService storage = new MediaStorageService(root);
+        write(storage.resolve(COVER), 2 * 1024 * 1024);
+        write(storage.resolve(THUMB), 30 * 1024);
+        controller = new MediaController(storage);
+
+        // The old MvcConfig mapping: /uploads/** -> file:uploads/
+        legacyHandler = new ResourceHttpRequestHandler();
+        legacyHandler.setLocations(List.of(new FileSystemResource(root.resolve("uploads") + "/")));
+        legacyHandler.setServletContext(new MockServletContext());
+        legacyHandler.afterPropertiesSet();
+    }
+
+    @Test
+    void compareWithResourceHandler() throws Exception {
+        System.out.printf("%-28s %14s %14s%n", "scenario", "legacy req/s", "media req/s");
+        report("cover 2MB, full", COVER, null, null, 200, 200);
+        report("thumbnail 30KB, full", THUMB, null, null, 200, 200);
+        report("cover, Range 1MB", COVER, "Range", "bytes=0-1048575", 206, 206);
+        // The legacy handler has no ETags, so a revalidation downloads the file again
+        String etag = serve(true, THUMB, null, null).getHeader("ETag");
+        report("thumbnail, If-None-Match", THUMB, "If-None-Match", etag, 200, 304);
+    }
+
+    private void report(String scenario, String url, String header, String value,
+                        int legacyStatus, int mediaStatus) throws Exception {
+        assertThat(serve(false, url, header, value).getStatus()).isEqualTo(legacyStatus);
+        assertThat(serve(true, url, header, value).getStatus()).isEqualTo(mediaStatus);
+        double legacy = throughput(false, url, header, value);
+        double media = throughput(true, url, header, value);
+        System.out.printf("%-28s %14.0f %14.0f%n", scenario, legacy, media);
+    }
+
+    private double throughput(boolean media, String url, String header, String value) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            serve(media, url, header, value);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serve(media, url, header, value);
+        }
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private MockHttpServletResponse serve(boolean media, String url, String header, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", url);
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (media) {
+            controller.serve(request, response);
+        } else {
+            request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, url.substring("/uploads/".length()));
+            legacyHandler.handleRequest(request, response);
+        }
+        return response;
+    }
+
+    private static void write(Path file, int size) throws Exception {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes);
+    }
+}
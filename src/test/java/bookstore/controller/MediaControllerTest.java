@@ -0,0 +1,95 @@
+package bookstore.controller;
+
+import bookstore.service.MediaStorageService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaControllerTest {
+
+    private static final String BLOB = MediaStorageService.blobUrl("ab".repeat(32), ".png");
+
+    @TempDir
+    Path root;
+
+    private MediaController controller;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MediaStorageService storage = new MediaStorageService(root);
+        controller = new MediaController(storage);
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = storage.resolve(BLOB);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    @Test
+    void servesBlobsAsImmutableWithAStrongETag() throws Exception {
+        MockHttpServletResponse response = get(BLOB, null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getHeader("Cache-Control")).contains("max-age=31536000").contains("immutable");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + "ab".repeat(32) + "-png\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void answersRevalidationWithNotModified() throws Exception {
+        String etag = get(BLOB, null, null).getHeader("ETag");
+
+        MockHttpServletResponse response = get(BLOB, "If-None-Match", etag);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesASingleByteRange() throws Exception {
+        MockHttpServletResponse response = get(BLOB, "Range", "bytes=100-199");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 100-199/1000");
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentAsByteArray()[0]).isEqualTo(content[100]);
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() throws Exception {
+        MockHttpServletResponse response = get(BLOB, "Range", "bytes=5000-");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void doesNotServeOutsideUploads() throws Exception {
+        Files.writeString(root.resolve("secret.txt"), "secret");
+
+        assertThat(get("/uploads/../secret.txt", null, null).getStatus()).isEqualTo(404);
+        assertThat(get("/uploads/blobs/missing.png", null, null).getStatus()).isEqualTo(404);
+    }
+
+    private MockHttpServletResponse get(String uri, String header, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package bookstore.repository;
+
+import bookstore.config.JpaConfig;
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.Category;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows per second for inserting 100k books through JPA: one save() (and transaction) per book
+// as the services used to, against saveAll() per 1000-book chunk with the JDBC batching from
+// JpaConfig. Not part of the normal build: run with "mvn test -Pbenchmark". Prints a table;
+// only the row counts are asserted.
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(JpaConfig.class)
+class BookBatchInsertBenchmarkTest {
+
+    private static final int BOOKS = 100_000;
+    private static final int CHUNK = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Author author;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        author = new Author();
+        author.setName("Benchmark Author");
+        author.setEmail("benchmark@example.com");
+        author.setGender("female");
+        author.setBiography("Writes a lot");
+        author = authorRepository.save(author);
+        category = new Category();
+        category.setName("Benchmark");
+        category = categoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSingleRowSavesWithBatchedSaveAll() {
+        System.out.printf("%-30s %12s%n", "strategy", "rows/s");
+
+        double single = measure(() -> {
+            for (int i = 0; i < BOOKS; i++) {
+                bookRepository.save(book("single", i));
+            }
+        });
+        System.out.printf("%-30s %12.0f%n", "save() per book", single);
+        bookRepository.deleteAllInBatch();
+
+        double batched = measure(() -> {
+            for (int from = 0; from < BOOKS; from += CHUNK) {
+                int start = from;
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Book> chunk = new ArrayList<>(CHUNK);
+                    for (int i = start; i < start + CHUNK; i++) {
+                        chunk.add(book("batched", i));
+                    }
+                    bookRepository.saveAll(chunk);
+                    // Keep the persistence context at one chunk
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            }
+        });
+        Object batchSize = entityManager.getEntityManagerFactory().getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        System.out.printf("%-30s %12.0f%n", "saveAll() per " + CHUNK + ", batch " + batchSize, batched);
+    }
+
+    private double measure(Runnable load) {
+        long start = System.nanoTime();
+        load.run();
+        double rowsPerSecond = BOOKS / ((System.nanoTime() - start) / 1e9);
+        assertThat(bookRepository.count()).isEqualTo(BOOKS);
+        return rowsPerSecond;
+    }
+
+    private Book book(String run, int i) {
+        Book book = new Book();
+        book.setTitle(run + " title " + i);
+        book.setIsbn(run + "-isbn-" + i);
+        book.setAuthor(author);
+        book.setCategory(category);
+        return book;
+    }
+}
@@ -0,0 +1,120 @@
+package bookstore.repository;
+
+import bookstore.dto.BookSummary;
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.Category;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rendering a listing page walks book.author.name and book.category.name for every row;
+// that must not cost one select per row.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookRepositoryFetchTest {
+
+    private static final int BOOKS = 25;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private BookRepository bookRepository;
+
+    private Statistics statistics;
+    private UUID someAuthorId;
+
+    @BeforeEach
+    void setUp() {
+        // Every book gets its own author and category, the worst case for per-row loading
+        for (int i = 0; i < BOOKS; i++) {
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setGender("female");
+            author.setBiography("Biography " + i);
+            entityManager.persist(author);
+            someAuthorId = author.getId();
+
+            Category category = new Category();
+            category.setName("Category " + i);
+            entityManager.persist(category);
+
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setIsbn("isbn-" + i);
+            book.setDescription("Description " + i);
+            book.setAuthor(author);
+            book.setCategory(category);
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void offsetListingPageIssuesOnlyTheSelectAndTheCount() {
+        Page<Book> page = bookRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+        render(page.getContent());
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void summaryListingPageIssuesOnlyTheSelectAndTheCount() {
+        Page<BookSummary> page = bookRepository.findSummaries(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(book -> {
+            assertThat(book.authorName()).startsWith("Author ");
+            assertThat(book.categoryName()).startsWith("Category ");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        // Projections never enter the persistence context
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetListingPageIssuesASingleSelect() {
+        List<BookSummary> books = bookRepository.findFirstSummaryPage(PageRequest.ofSize(PAGE_SIZE + 1));
+
+        assertThat(books).hasSize(PAGE_SIZE + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findersFetchAuthorAndCategoryWithTheBook() {
+        render(bookRepository.findByAuthor_Id(someAuthorId));
+        render(List.of(bookRepository.findByIsbn("isbn-3")));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private static void render(List<Book> books) {
+        for (Book book : books) {
+            book.getAuthor().getName();
+            book.getCategory().getName();
+        }
+    }
+}
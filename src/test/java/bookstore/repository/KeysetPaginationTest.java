@@ -0,0 +1,146 @@
+package bookstore.repository;
+
+import bookstore.dto.AuthorSummary;
+import bookstore.dto.BookSummary;
+import bookstore.dto.CategorySummary;
+import bookstore.dto.CursorPage;
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.Category;
+import bookstore.util.CursorToken;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Walks every keyset page over rows that mostly share one created_at, the way a bulk import
+// stamps a whole chunk: the id tie-break must make the pages disjoint and complete.
+@DataJpaTest
+class KeysetPaginationTest {
+
+    private static final int ROWS = 45;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final List<UUID> bookIds = new ArrayList<>();
+    private final List<UUID> authorIds = new ArrayList<>();
+    private final List<UUID> categoryIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            Author author = new Author();
+            author.setName("Author " + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setGender("female");
+            author.setBiography("Biography " + i);
+            entityManager.persist(author);
+            authorIds.add(author.getId());
+
+            Category category = new Category();
+            category.setName("Category " + i);
+            entityManager.persist(category);
+            categoryIds.add(category.getId());
+
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setIsbn("isbn-" + i);
+            book.setAuthor(author);
+            book.setCategory(category);
+            entityManager.persist(book);
+            bookIds.add(book.getId());
+        }
+        entityManager.flush();
+
+        // Every row in the same millisecond except a few newer ones, so page boundaries fall
+        // inside the tie
+        Timestamp shared = new Timestamp(System.currentTimeMillis() - 60_000);
+        Timestamp newer = new Timestamp(shared.getTime() + 1);
+        for (String table : List.of("book", "authors", "category")) {
+            entityManager.getEntityManager().createNativeQuery("update " + table + " set created_at = ?1")
+                    .setParameter(1, shared).executeUpdate();
+        }
+        for (int i = 0; i < ROWS; i += 10) {
+            entityManager.getEntityManager().createNativeQuery("update book set created_at = ?1 where id = ?2")
+                    .setParameter(1, newer).setParameter(2, bookIds.get(i)).executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void bookPagesAreDisjointAndComplete() {
+        List<UUID> walked = walk(bookRepository::findFirstSummaryPage,
+                (after, limit) -> bookRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit),
+                book -> new CursorToken(book.createdAt(), book.id()));
+
+        assertThat(walked).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(bookIds);
+    }
+
+    @Test
+    void authorPagesAreDisjointAndComplete() {
+        List<UUID> walked = walk(authorRepository::findFirstSummaryPage,
+                (after, limit) -> authorRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit),
+                (AuthorSummary author) -> new CursorToken(author.createdAt(), author.id()));
+
+        assertThat(walked).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(authorIds);
+    }
+
+    @Test
+    void categoryPagesAreDisjointAndComplete() {
+        List<UUID> walked = walk(categoryRepository::findFirstSummaryPage,
+                (after, limit) -> categoryRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit),
+                (CategorySummary category) -> new CursorToken(category.createdAt(), category.id()));
+
+        assertThat(walked).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(categoryIds);
+    }
+
+    @Test
+    void newerRowsComeFirst() {
+        List<BookSummary> first = bookRepository.findFirstSummaryPage(PageRequest.ofSize(PAGE_SIZE));
+        Date newest = first.get(0).createdAt();
+
+        assertThat(first.subList(0, 5)).allSatisfy(book -> assertThat(book.createdAt()).isEqualTo(newest));
+        assertThat(first.get(5).createdAt()).isBefore(newest);
+    }
+
+    // Ids in the order the pages hand them out, following the cursor the way the services do
+    private static <T> List<UUID> walk(Function<Pageable, List<T>> first,
+                                       BiFunction<CursorToken, Pageable, List<T>> after,
+                                       Function<T, CursorToken> sortKey) {
+        Pageable limit = PageRequest.ofSize(PAGE_SIZE + 1);
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            List<T> rows = cursor == null ? first.apply(limit) : after.apply(CursorToken.decode(cursor), limit);
+            CursorPage<T> page = CursorPage.of(rows, PAGE_SIZE, sortKey);
+            page.content().forEach(row -> ids.add(sortKey.apply(row).id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null && pages <= ROWS);
+        assertThat(pages).isEqualTo((ROWS + PAGE_SIZE - 1) / PAGE_SIZE);
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+package bookstore.repository;
+
+import bookstore.util.UuidV7;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bulk insert into a table keyed like Book (uuid primary key plus a unique title), with random
+// v4 keys against time-ordered v7 keys, on a file-backed H2 database. Prints insert throughput
+// and the space the table and its indexes take. Random keys land all over the primary key
+// B-tree and leave half-empty pages behind; the effect is larger on InnoDB (clustered primary
+// key) and PostgreSQL than on H2. Not part of the normal build: run with "mvn test -Pbenchmark".
+@Tag("benchmark")
+class PrimaryKeyBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH = 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws Exception {
+        System.out.printf("%-12s %14s %14s%n", "key", "rows/s", "table KB");
+        long random = report("uuid v4", "v4", UUID::randomUUID);
+        long ordered = report("uuid v7", "v7", UuidV7::generate);
+        assertThat(random).isPositive();
+        assertThat(ordered).isPositive();
+    }
+
+    private long report(String label, String database, Supplier<UUID> keys) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve(database), "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table book (id uuid primary key, title varchar(255) not null unique, " +
+                        "created_at timestamp)");
+            }
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into book (id, title, created_at) values (?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setObject(1, keys.get());
+                    insert.setString(2, "Title " + i);
+                    insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    insert.addBatch();
+                    if ((i + 1) % BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            double rowsPerSecond = ROWS / ((System.nanoTime() - start) / 1e9);
+
+            long bytes;
+            try (Statement statement = connection.createStatement();
+                 ResultSet size = statement.executeQuery("select disk_space_used('BOOK')")) {
+                size.next();
+                bytes = size.getLong(1);
+            }
+            System.out.printf("%-12s %14.0f %14d%n", label, rowsPerSecond, bytes / 1024);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package bookstore.repository;
+
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.Category;
+import bookstore.models.PasswordResetToken;
+import bookstore.models.User;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Query-plan regression test on the schema the Flyway migrations build. Every finder of
+// BookRepository, UserRepository and PasswordResetTokenRepository is either run here, with
+// each statement it issues put through H2's EXPLAIN and required to use an index, or listed
+// as reading the whole table by design. A new finder that is in neither fails the test.
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "bookstore.repository.QueryPlanTest$CapturingInspector")
+class QueryPlanTest {
+
+    // Listings, exports and index rebuilds that read every row on purpose
+    private static final Set<String> WHOLE_TABLE_FINDERS = Set.of(
+            "findAll", "findAllTitles", "findAllIsbns", "findSummaries", "findFirstSummaryPage",
+            "streamSearchDocuments", "findTitleSuggestions", "streamSummariesOldestFirst", "findImageUrls");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    private Book book;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Author author = new Author();
+        author.setName("Ursula K. Le Guin");
+        author.setEmail("ursula@example.com");
+        author.setGender("female");
+        author.setBiography("Biography");
+        entityManager.persist(author);
+
+        Category category = new Category();
+        category.setName("Science Fiction");
+        entityManager.persist(category);
+
+        book = new Book();
+        book.setTitle("The Dispossessed");
+        book.setIsbn("9780061054884");
+        book.setImageUrl("/uploads/dispossessed.jpg");
+        book.setAuthor(author);
+        book.setCategory(category);
+        entityManager.persist(book);
+
+        user = new User();
+        user.setEmail("reader@example.com");
+        user.setUsername("reader");
+        user.setFirstName("Ada");
+        user.setLastName("Reader");
+        user.setPassword("secret");
+        entityManager.persist(user);
+        entityManager.persist(new PasswordResetToken("reset-token", user.getId(), new Date()));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void migrationsOwnTheSchema() {
+        List<String> versions = entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            List<String> applied = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select \"version\" from \"flyway_schema_history\" where \"success\"");
+                 ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    applied.add(result.getString(1));
+                }
+            }
+            return applied;
+        });
+        assertThat(versions).contains("1", "2", "3");
+    }
+
+    @Test
+    void bookFindersUseAnIndex() {
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("findById", () -> bookRepository.findById(book.getId()));
+        finders.put("findByAuthor_Id", () -> bookRepository.findByAuthor_Id(book.getAuthor().getId()));
+        finders.put("findByCategory_Id", () -> bookRepository.findByCategory_Id(book.getCategory().getId()));
+        finders.put("findByIsbn", () -> bookRepository.findByIsbn(book.getIsbn()));
+        finders.put("existsByTitle", () -> bookRepository.existsByTitle(book.getTitle()));
+        finders.put("findSummaryPageAfter",
+                () -> bookRepository.findSummaryPageAfter(book.getCreatedAt(), book.getId(), PageRequest.ofSize(20)));
+        finders.put("findSearchDocumentsByAuthorId",
+                () -> bookRepository.findSearchDocumentsByAuthorId(book.getAuthor().getId()));
+        finders.put("findSearchDocumentsByCategoryId",
+                () -> bookRepository.findSearchDocumentsByCategoryId(book.getCategory().getId()));
+        finders.put("findSummariesByIdIn", () -> bookRepository.findSummariesByIdIn(List.of(book.getId(), UUID.randomUUID())));
+        finders.put("countByImageUrl", () -> bookRepository.countByImageUrl(book.getImageUrl()));
+
+        assertEveryFinderCovered(BookRepository.class, finders);
+        assertThat(fullScans(finders)).isEmpty();
+    }
+
+    @Test
+    void userFindersUseAnIndex() {
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("findByUsername", () -> userRepository.findByUsername(user.getUsername()));
+        finders.put("findByEmail", () -> userRepository.findByEmail(user.getEmail()));
+
+        assertEveryFinderCovered(UserRepository.class, finders);
+        assertThat(fullScans(finders)).isEmpty();
+    }
+
+    @Test
+    void passwordResetTokenFindersUseAnIndex() {
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("findByToken", () -> tokenRepository.findByToken("reset-token"));
+        finders.put("deleteByToken", () -> tokenRepository.deleteByToken("reset-token"));
+
+        assertEveryFinderCovered(PasswordResetTokenRepository.class, finders);
+        assertThat(fullScans(finders)).isEmpty();
+    }
+
+    private static void assertEveryFinderCovered(Class<?> repository, Map<String, Runnable> finders) {
+        List<String> uncovered = Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .map(Method::getName)
+                .filter(name -> !finders.containsKey(name) && !WHOLE_TABLE_FINDERS.contains(name))
+                .distinct()
+                .toList();
+        assertThat(uncovered).as("finders of %s without a query-plan check", repository.getSimpleName()).isEmpty();
+    }
+
+    // "finder: plan" for every select that H2 answers with a table scan
+    private List<String> fullScans(Map<String, Runnable> finders) {
+        List<String> scans = new ArrayList<>();
+        finders.forEach((name, finder) -> {
+            entityManager.clear();
+            CapturingInspector.STATEMENTS.clear();
+            finder.run();
+            List<String> selects = CapturingInspector.STATEMENTS.stream()
+                    .filter(sql -> sql.strip().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+            assertThat(selects).as("statements issued by %s", name).isNotEmpty();
+            for (String sql : selects) {
+                String plan = explain(sql);
+                if (plan.toLowerCase(Locale.ROOT).contains("tablescan")) {
+                    scans.add(name + ": " + plan);
+                }
+            }
+        });
+        return scans;
+    }
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                // The plan does not depend on the values, only on which columns are compared
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        plan.append(result.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package bookstore.repository;
+
+import bookstore.config.JpaConfig;
+import bookstore.models.Category;
+import bookstore.models.Role;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Category and Role lookups are answered from the second-level and query caches, and a write
+// through JPA is visible on the next lookup. Every repository call runs in its own
+// transaction and session, as it does from the services.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(JpaConfig.class)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void categoryByIdIsServedFromTheEntityCache() {
+        Category category = new Category();
+        category.setName("Poetry");
+        UUID id = categoryRepository.save(category).getId();
+        statistics.clear();
+
+        assertThat(categoryRepository.findById(id)).get().extracting(Category::getName).isEqualTo("Poetry");
+        assertThat(categoryRepository.findById(id)).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void roleByNameIsServedFromTheQueryCacheUntilTheTableChanges() {
+        Role role = new Role();
+        role.setName("ROLE_READER");
+        role = roleRepository.save(role);
+
+        roleRepository.findByName("ROLE_READER");
+        statistics.clear();
+        assertThat(roleRepository.findByName("ROLE_READER")).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        role.setName("ROLE_MEMBER");
+        roleRepository.save(role);
+        assertThat(roleRepository.findByName("ROLE_READER")).isEmpty();
+        assertThat(roleRepository.findByName("ROLE_MEMBER")).isPresent();
+    }
+}
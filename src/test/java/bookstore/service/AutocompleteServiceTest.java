@@ -0,0 +1,114 @@
+package bookstore.service;
+
+import bookstore.dto.Suggestion;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AutocompleteServiceTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    // Rebuilds queued by invalidate() run when the test says so
+    private final List<Runnable> queuedRebuilds = new ArrayList<>();
+    private final AutocompleteService autocompleteService =
+            new AutocompleteService(bookRepository, authorRepository, queuedRebuilds::add);
+
+    @BeforeEach
+    void setUp() {
+        when(authorRepository.findNameSuggestions()).thenReturn(List.of(
+                author("Ursula K. Le Guin", 6),
+                author("Stanisław Lem", 2),
+                author("Terry Pratchett", 41),
+                author("Karel Čapek", 3)));
+        when(bookRepository.findTitleSuggestions()).thenReturn(List.of(
+                book("The Left Hand of Darkness"),
+                book("The Lathe of Heaven"),
+                book("Solaris"),
+                book("Small Gods")));
+    }
+
+    @Test
+    void matchesFromTheStartOfAnyWord() {
+        assertThat(labels(autocompleteService.suggest("gu", Suggestion.AUTHOR, 10))).containsExactly("Ursula K. Le Guin");
+        assertThat(labels(autocompleteService.suggest("le", Suggestion.AUTHOR, 10)))
+                .containsExactly("Ursula K. Le Guin", "Stanisław Lem");
+        assertThat(labels(autocompleteService.suggest("darkn", Suggestion.BOOK, 10))).containsExactly("The Left Hand of Darkness");
+    }
+
+    @Test
+    void foldsCaseAccentsAndPunctuation() {
+        assertThat(labels(autocompleteService.suggest("CAPEK", null, 10))).containsExactly("Karel Čapek");
+        assertThat(labels(autocompleteService.suggest("ursula k le", null, 10))).containsExactly("Ursula K. Le Guin");
+    }
+
+    @Test
+    void rankingPrefersHeavierThenShorterEntries() {
+        // Authors with more books first; titles (all weight 1) shortest first
+        assertThat(labels(autocompleteService.suggest("s", null, 10)))
+                .containsExactly("Stanisław Lem", "Solaris", "Small Gods");
+        assertThat(labels(autocompleteService.suggest("the l", Suggestion.BOOK, 10)))
+                .containsExactly("The Lathe of Heaven", "The Left Hand of Darkness");
+    }
+
+    @Test
+    void limitAndUnknownPrefixes() {
+        assertThat(autocompleteService.suggest("the", Suggestion.BOOK, 1)).hasSize(1);
+        assertThat(autocompleteService.suggest("xyz", null, 10)).isEmpty();
+        assertThat(autocompleteService.suggest("  ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void eachNodeKeepsOnlyTheTopEntries() {
+        List<Suggestion> many = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            many.add(new Suggestion(Suggestion.AUTHOR, UUID.randomUUID(), "Author " + i, i));
+        }
+        when(authorRepository.findNameSuggestions()).thenReturn(many);
+
+        assertThat(labels(autocompleteService.suggest("author", Suggestion.AUTHOR, 100)))
+                .hasSize(AutocompleteService.TOP_K)
+                .startsWith("Author 49", "Author 48");
+    }
+
+    @Test
+    void writesQueueOneRebuildAndLookupsKeepTheOldIndexUntilItRuns() {
+        assertThat(labels(autocompleteService.suggest("sol", Suggestion.BOOK, 10))).containsExactly("Solaris");
+        when(bookRepository.findTitleSuggestions()).thenReturn(List.of(book("Solaris"), book("Solar Lottery")));
+
+        autocompleteService.invalidate();
+        autocompleteService.invalidate();
+
+        assertThat(queuedRebuilds).hasSize(1);
+        assertThat(labels(autocompleteService.suggest("sol", Suggestion.BOOK, 10))).containsExactly("Solaris");
+        verify(bookRepository, times(1)).findTitleSuggestions();
+
+        queuedRebuilds.remove(0).run();
+        assertThat(labels(autocompleteService.suggest("sol", Suggestion.BOOK, 10)))
+                .containsExactly("Solaris", "Solar Lottery");
+    }
+
+    private static List<String> labels(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::label).toList();
+    }
+
+    private static Suggestion author(String name, long books) {
+        return new Suggestion(Suggestion.AUTHOR, UUID.randomUUID(), name, books);
+    }
+
+    private static Suggestion book(String title) {
+        return new Suggestion(Suggestion.BOOK, UUID.randomUUID(), title, 1);
+    }
+}
@@ -0,0 +1,153 @@
+package bookstore.service;
+
+import bookstore.dto.ImportReport;
+import bookstore.models.Author;
+import bookstore.models.Category;
+import bookstore.models.ImportJob;
+import bookstore.models.ImportRowError;
+import bookstore.models.ImportStatus;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CategoryRepository;
+import bookstore.repository.ImportJobRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Chunks commit on their own, so the test runs without the usual rollback transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookImportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class BookImportServiceTest {
+
+    private static final String CSV = """
+            title,isbn,author,category,publishedDate
+            Emma,isbn-1,Jane Austen,Classics,1815-12-23
+            Persuasion,isbn-2,jane@example.com,classics,
+            Emma,isbn-3,Jane Austen,Classics,
+            Dracula,isbn-4,Bram Stoker,Classics,
+            Sanditon,isbn-5,Jane Austen,Classics,not-a-date
+            Mansfield Park,isbn-6,Jane Austen,Classics,
+            """;
+
+    @Autowired
+    private BookImportService importService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ImportJobRepository importJobRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CatalogueCacheInvalidator cacheInvalidator;
+    @MockBean
+    private BookSearchService searchService;
+    @MockBean
+    private AutocompleteService autocompleteService;
+    @MockBean
+    private FacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        Author author = new Author();
+        author.setName("Jane Austen");
+        author.setEmail("jane@example.com");
+        author.setGender("female");
+        author.setBiography("Novelist");
+        authorRepository.save(author);
+
+        Category category = new Category();
+        category.setName("Classics");
+        categoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        authorRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        importJobRepository.deleteAll();
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRest() throws IOException {
+        ImportReport report = importService.importBooks("books.csv", file(CSV), 2);
+
+        assertThat(report.status()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(report.rowsProcessed()).isEqualTo(6);
+        assertThat(report.rowsImported()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportReport.RowError::row).containsExactly(3L, 4L, 5L);
+        assertThat(report.errors().get(1).message()).contains("Unknown author");
+        assertThat(bookRepository.findAllTitles()).containsExactlyInAnyOrder("Emma", "Persuasion", "Mansfield Park");
+    }
+
+    @Test
+    void resumesAFailedRunAfterTheLastCommittedChunk() throws IOException {
+        ImportReport first = importService.importBooks("books.csv", file(CSV), 2);
+        // Pretend the run died after its first chunk (rows 1-2) committed
+        jdbcTemplate.update("delete from book where title = 'Mansfield Park'");
+        ImportJob job = importJobRepository.findWithErrorsById(first.id()).orElseThrow();
+        job.setStatus(ImportStatus.FAILED);
+        job.getErrors().clear();
+        ReflectionTestUtils.setField(job, "rowsProcessed", 2L);
+        ReflectionTestUtils.setField(job, "rowsImported", 2L);
+        ReflectionTestUtils.setField(job, "rowsRejected", 0L);
+        importJobRepository.save(job);
+
+        ImportReport resumed = importService.importBooks("books.csv", file(CSV), 2);
+
+        // Emma and Persuasion were not read again, so they are not reported as duplicates
+        assertThat(resumed.id()).isEqualTo(first.id());
+        assertThat(resumed.status()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(resumed.rowsProcessed()).isEqualTo(6);
+        assertThat(resumed.rowsImported()).isEqualTo(3);
+        assertThat(resumed.errors()).extracting(ImportReport.RowError::row).containsExactly(3L, 4L, 5L);
+        assertThat(bookRepository.findAllTitles()).contains("Mansfield Park");
+    }
+
+    @Test
+    void longValuesInRowErrorsAreCutToFitTheColumn() throws IOException {
+        String title = "T".repeat(255);
+        String author = "A".repeat(400);
+        String csv = "title,isbn,author,category,publishedDate\n"
+                + title + ",isbn-1,Jane Austen,Classics,\n"
+                + title + ",isbn-2,Jane Austen,Classics,\n"
+                + "Emma,isbn-3," + author + ",Classics,\n";
+
+        ImportReport report = importService.importBooks("books.csv", file(csv), 10);
+
+        assertThat(report.status()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(report.rowsImported()).isEqualTo(1);
+        assertThat(report.errors()).extracting(ImportReport.RowError::row).containsExactly(2L, 3L);
+        assertThat(report.errors()).allSatisfy(error -> assertThat(error.message())
+                .hasSize(ImportRowError.MAX_MESSAGE_LENGTH).endsWith("..."));
+        assertThat(report.errors().get(0).message()).startsWith("Book title already exists: TTT");
+    }
+
+    private static ByteArrayResource file(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
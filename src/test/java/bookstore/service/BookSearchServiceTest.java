@@ -0,0 +1,86 @@
+package bookstore.service;
+
+import bookstore.dto.BookSearchDocument;
+import bookstore.dto.BookSummary;
+import bookstore.repository.BookRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchServiceTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookSearchService searchService = new BookSearchService(bookRepository);
+
+    private final BookSearchDocument earthsea = document("A Wizard of Earthsea", "A young mage on the islands of Earthsea",
+            "978-0-547-72202-3", "Ursula K. Le Guin", "Fantasy");
+    private final BookSearchDocument dispossessed = document("The Dispossessed", "An anarchist physicist travels to Urras",
+            "978-0-06-051275-3", "Ursula K. Le Guin", "Science Fiction");
+    private final BookSearchDocument solaris = document("Solaris", "A planet-wide ocean on Solaris studies its visitors, written in Kraków",
+            "978-0-15-602760-1", "Stanisław Lem", "Science Fiction");
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamSearchDocuments()).thenReturn(Stream.of(earthsea, dispossessed, solaris));
+        searchService.rebuild();
+    }
+
+    @Test
+    void allTermsMustMatchAcrossFields() {
+        assertThat(titles(searchService.search("le guin fiction", 10))).containsExactly("The Dispossessed");
+        assertThat(searchService.search("le guin solaris", 10)).isEmpty();
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        BookSearchDocument mention = document("Ocean Stories", "Contains an essay about Solaris",
+                "isbn-1", "Various", "Anthology");
+        searchService.index(mention);
+
+        assertThat(titles(searchService.search("solaris", 10))).containsExactly("Solaris", "Ocean Stories");
+    }
+
+    @Test
+    void tokenizationIgnoresCaseAccentsPunctuationAndStopwords() {
+        assertThat(titles(searchService.search("KRAKOW", 10))).containsExactly("Solaris");
+        assertThat(titles(searchService.search("the wizard of earthsea!", 10))).containsExactly("A Wizard of Earthsea");
+        assertThat(titles(searchService.search("9780060512753", 10))).containsExactly("The Dispossessed");
+        assertThat(searchService.search("the of", 10)).isEmpty();
+    }
+
+    @Test
+    void updatesAndRemovalsApplyIncrementally() {
+        searchService.index(new BookSearchDocument(solaris.id(), "Solaris", solaris.description(), solaris.isbn(),
+                null, false, null, "Stanislaw Lem", null, "Classics", new Date()));
+        searchService.remove(earthsea.id());
+
+        assertThat(titles(searchService.search("classics", 10))).containsExactly("Solaris");
+        assertThat(titles(searchService.search("science fiction", 10))).containsExactly("The Dispossessed");
+        assertThat(searchService.search("earthsea", 10)).isEmpty();
+        assertThat(searchService.size()).isEqualTo(2);
+    }
+
+    @Test
+    void limitKeepsOnlyTheBestHits() {
+        assertThat(searchService.search("fiction", 1)).hasSize(1);
+    }
+
+    private static List<String> titles(List<BookSummary> books) {
+        return books.stream().map(BookSummary::title).toList();
+    }
+
+    private static BookSearchDocument document(String title, String description, String isbn,
+                                               String authorName, String categoryName) {
+        return new BookSearchDocument(UUID.randomUUID(), title, description, isbn, null, false,
+                UUID.randomUUID(), authorName, UUID.randomUUID(), categoryName, new Date());
+    }
+}
@@ -0,0 +1,250 @@
+package bookstore.service;
+
+import bookstore.config.CacheConfig;
+import bookstore.config.CacheSettings;
+import bookstore.dto.BookDTO;
+import bookstore.models.Author;
+import bookstore.models.Book;
+import bookstore.models.Category;
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+import bookstore.repository.CategoryRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+class BookServiceCacheRegionsTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new CacheConfig().cacheManager(new CacheSettings());
+        }
+
+        @Bean
+        BookRepository bookRepository() {
+            return mock(BookRepository.class);
+        }
+
+        @Bean
+        AuthorRepository authorRepository() {
+            return mock(AuthorRepository.class);
+        }
+
+        @Bean
+        CategoryRepository categoryRepository() {
+            return mock(CategoryRepository.class);
+        }
+
+        @Bean
+        CatalogueCacheInvalidator catalogueCacheInvalidator(CacheManager cacheManager) {
+            return new CatalogueCacheInvalidator(cacheManager);
+        }
+
+        @Bean
+        BookSearchService bookSearchService() {
+            return mock(BookSearchService.class);
+        }
+
+        @Bean
+        AutocompleteService autocompleteService() {
+            return mock(AutocompleteService.class);
+        }
+
+        @Bean
+        FacetService facetService() {
+            return mock(FacetService.class);
+        }
+
+        @Bean
+        BookService bookService(BookRepository bookRepository, AuthorRepository authorRepository,
+                                CategoryRepository categoryRepository, CatalogueCacheInvalidator invalidator,
+                                BookSearchService searchService, AutocompleteService autocompleteService,
+                                FacetService facetService, ApplicationEventPublisher eventPublisher) {
+            return new BookService(bookRepository, authorRepository, categoryRepository, invalidator,
+                    searchService, autocompleteService, facetService, new MediaStorageService(), mock(MediaGarbageCollector.class), eventPublisher);
+        }
+    }
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private CatalogueCacheInvalidator cacheInvalidator;
+
+    private final UUID sharedId = UUID.randomUUID();
+    private Author author;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        reset(bookRepository, authorRepository, categoryRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        author = new Author();
+        author.setId(sharedId);
+        author.setName("Ursula K. Le Guin");
+        category = new Category();
+        category.setId(sharedId);
+        category.setName("Fantasy");
+    }
+
+    @Test
+    void entityAndFinderLookupsWithTheSameUuidDoNotCollide() {
+        Book byId = book("A Wizard of Earthsea", "isbn-1");
+        Book byAuthor = book("The Tombs of Atuan", "isbn-2");
+        Book byCategory = book("The Farthest Shore", "isbn-3");
+        when(bookRepository.findById(sharedId)).thenReturn(Optional.of(byId));
+        when(bookRepository.findByAuthor_Id(sharedId)).thenReturn(List.of(byAuthor));
+        when(bookRepository.findByCategory_Id(sharedId)).thenReturn(List.of(byCategory));
+
+        assertThat(bookService.findBooksByAuthor(sharedId)).containsExactly(byAuthor);
+        assertThat(bookService.findBooksByCategory(sharedId)).containsExactly(byCategory);
+        assertThat(bookService.findBookById(sharedId)).isSameAs(byId);
+
+        // Served from cache the second time round, still from the right region
+        assertThat(bookService.findBooksByAuthor(sharedId)).containsExactly(byAuthor);
+        assertThat(bookService.findBooksByCategory(sharedId)).containsExactly(byCategory);
+        assertThat(bookService.findBookById(sharedId)).isSameAs(byId);
+        verify(bookRepository, times(1)).findByAuthor_Id(sharedId);
+        verify(bookRepository, times(1)).findByCategory_Id(sharedId);
+        verify(bookRepository, times(1)).findById(sharedId);
+    }
+
+    @Test
+    void isbnLookupDoesNotShadowIdLookup() {
+        Book byIsbn = book("The Dispossessed", sharedId.toString());
+        Book byId = book("The Left Hand of Darkness", "isbn-4");
+        when(bookRepository.findByIsbn(sharedId.toString())).thenReturn(byIsbn);
+        when(bookRepository.findById(sharedId)).thenReturn(Optional.of(byId));
+
+        assertThat(bookService.findBookByIsbn(sharedId.toString())).isSameAs(byIsbn);
+        assertThat(bookService.findBookById(sharedId)).isSameAs(byId);
+    }
+
+    @Test
+    void finderResultsAreStoredInTheirOwnRegionsUnderNamespacedKeys() {
+        when(bookRepository.findByAuthor_Id(sharedId)).thenReturn(List.of());
+        when(bookRepository.findByCategory_Id(sharedId)).thenReturn(List.of());
+        when(bookRepository.findByIsbn("isbn-5")).thenReturn(book("Lavinia", "isbn-5"));
+
+        bookService.findBooksByAuthor(sharedId);
+        bookService.findBooksByCategory(sharedId);
+        bookService.findBookByIsbn("isbn-5");
+
+        assertThat(cacheManager.getCache("booksByAuthor").get("author:" + sharedId)).isNotNull();
+        assertThat(cacheManager.getCache("booksByCategory").get("category:" + sharedId)).isNotNull();
+        assertThat(cacheManager.getCache("booksByIsbn").get("isbn:isbn-5")).isNotNull();
+        assertThat(cacheManager.getCache("books").get(sharedId)).isNull();
+    }
+
+    @Test
+    void everyFinderRegionIsBounded() {
+        for (String region : List.of("books", "booksByAuthor", "booksByCategory", "booksByIsbn")) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(region);
+            assertThat(cache.getNativeCache().policy().eviction()).as(region).isPresent();
+            assertThat(cache.getNativeCache().policy().expireAfterWrite()
+                    .or(() -> cache.getNativeCache().policy().expireAfterAccess())).as(region).isPresent();
+        }
+    }
+
+    @Test
+    void addingABookEvictsTheFinderEntriesItBelongsTo() {
+        when(bookRepository.findByAuthor_Id(sharedId)).thenReturn(List.of());
+        bookService.findBooksByAuthor(sharedId);
+
+        BookDTO dto = new BookDTO();
+        dto.setTitle("Always Coming Home");
+        dto.setIsbn("isbn-6");
+        dto.setDescription("An archaeology of the future");
+        dto.setAuthorId(sharedId);
+        dto.setCategoryId(sharedId);
+        when(authorRepository.findById(sharedId)).thenReturn(Optional.of(author));
+        when(categoryRepository.findById(sharedId)).thenReturn(Optional.of(category));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+            Book saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+        bookService.addBook(dto, null);
+
+        assertThat(cacheManager.getCache("booksByAuthor").get("author:" + sharedId)).isNull();
+    }
+
+    @Test
+    void repeatedEditsLeaveNothingBehindInTheInvalidator() {
+        Book edited = book("The Word for World Is Forest", "isbn-7");
+        UUID id = edited.getId();
+        when(bookRepository.findById(id)).thenReturn(Optional.of(edited));
+        when(authorRepository.findById(sharedId)).thenReturn(Optional.of(author));
+        when(categoryRepository.findById(sharedId)).thenReturn(Optional.of(category));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        bookService.findBookById(id);
+        int registered = cacheInvalidator.registeredEntries();
+
+        for (int i = 0; i < 20; i++) {
+            BookDTO dto = new BookDTO();
+            dto.setTitle("The Word for World Is Forest " + i);
+            dto.setIsbn("isbn-7");
+            dto.setDescription("Edit " + i);
+            dto.setAuthorId(sharedId);
+            dto.setCategoryId(sharedId);
+            bookService.updateBook(id, dto, null);
+        }
+
+        assertThat(cacheInvalidator.cancelledPuts()).isZero();
+        assertThat(cacheInvalidator.registeredEntries()).isLessThanOrEqualTo(registered);
+        assertThat(cacheManager.getCache("books").get(id)).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejectedBeforeAnyQuery() {
+        assertThatThrownBy(() -> bookService.getBooksAfter("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid page cursor");
+        verifyNoInteractions(bookRepository);
+        assertThat(cacheManager.getCache("books").get(CatalogueCacheInvalidator.cursorKey("not-a-cursor"))).isNull();
+    }
+
+    private Book book(String title, String isbn) {
+        Book book = new Book();
+        book.setId(UUID.randomUUID());
+        book.setTitle(title);
+        book.setIsbn(isbn);
+        book.setAuthor(author);
+        book.setCategory(category);
+        return book;
+    }
+}
@@ -0,0 +1,80 @@
+package bookstore.service;
+
+import bookstore.config.CacheConfig;
+import bookstore.config.CacheSettings;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueCacheInvalidatorTest {
+
+    private final UUID bookId = UUID.randomUUID();
+    private final String tag = CatalogueCacheInvalidator.tag("book", bookId);
+
+    @Test
+    void evictionBetweenRegisterAndPutDropsThePut() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new CacheSettings());
+        CatalogueCacheInvalidator invalidator = new CatalogueCacheInvalidator(cacheManager);
+        Cache books = cacheManager.getCache("books");
+        List<String> stale = List.of("before the write");
+
+        // A reader registers what it read, a write commits, then the reader's put arrives
+        invalidator.registerPage("books", 1, stale, List.of(tag));
+        invalidator.rowUpdated("books", bookId, tag);
+        books.put(CatalogueCacheInvalidator.pageKey(1), stale);
+
+        assertThat(books.get(CatalogueCacheInvalidator.pageKey(1))).isNull();
+        assertThat(invalidator.registeredEntries()).isZero();
+
+        // The next reader caches normally
+        List<String> fresh = List.of("after the write");
+        invalidator.registerPage("books", 1, fresh, List.of(tag));
+        books.put(CatalogueCacheInvalidator.pageKey(1), fresh);
+        assertThat(books.get(CatalogueCacheInvalidator.pageKey(1)).get()).isSameAs(fresh);
+    }
+
+    @Test
+    void entriesCaffeineEvictsAreForgotten() throws InterruptedException {
+        CacheSettings settings = new CacheSettings();
+        settings.setSpecs(Map.of("books", "maximumSize=1"));
+        CacheManager cacheManager = new CacheConfig().cacheManager(settings);
+        CatalogueCacheInvalidator invalidator = new CatalogueCacheInvalidator(cacheManager);
+        Cache books = cacheManager.getCache("books");
+
+        for (int i = 0; i < 50; i++) {
+            String key = CatalogueCacheInvalidator.cursorKey("cursor-" + i);
+            List<String> page = List.of("page " + i);
+            invalidator.register("books", key, page, List.of(tag));
+            books.put(key, page);
+        }
+
+        // Removal listeners run on Caffeine's executor
+        for (int attempt = 0; attempt < 100 && invalidator.registeredEntries() > 1; attempt++) {
+            ((CaffeineCache) books).getNativeCache().cleanUp();
+            Thread.sleep(20);
+        }
+        assertThat(invalidator.registeredEntries()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void clearingARegionForgetsItsEntries() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new CacheSettings());
+        CatalogueCacheInvalidator invalidator = new CatalogueCacheInvalidator(cacheManager);
+        List<String> page = List.of("page");
+        invalidator.registerPage("books", 1, page, List.of(tag));
+        cacheManager.getCache("books").put(CatalogueCacheInvalidator.pageKey(1), page);
+
+        invalidator.clear("books");
+
+        assertThat(invalidator.registeredEntries()).isZero();
+        assertThat(cacheManager.getCache("books").get(CatalogueCacheInvalidator.pageKey(1))).isNull();
+    }
+}
@@ -0,0 +1,105 @@
+package bookstore.service;
+
+import bookstore.dto.BookFilter;
+import bookstore.dto.BookSummary;
+import bookstore.dto.FacetCount;
+import bookstore.dto.FacetCounts;
+import bookstore.dto.FacetedPage;
+import bookstore.repository.BookRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FacetServiceTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final FacetService facetService = new FacetService(bookRepository);
+
+    private final UUID fantasy = UUID.randomUUID();
+    private final UUID scienceFiction = UUID.randomUUID();
+    private final UUID leGuin = UUID.randomUUID();
+    private final UUID lem = UUID.randomUUID();
+    private final List<BookSummary> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        books.add(book("A Wizard of Earthsea", leGuin, "Ursula K. Le Guin", fantasy, "Fantasy", false));
+        books.add(book("The Dispossessed", leGuin, "Ursula K. Le Guin", scienceFiction, "Science Fiction", true));
+        books.add(book("The Left Hand of Darkness", leGuin, "Ursula K. Le Guin", scienceFiction, "Science Fiction", false));
+        books.add(book("Solaris", lem, "Stanisław Lem", scienceFiction, "Science Fiction", false));
+
+        when(bookRepository.streamSummariesOldestFirst()).thenAnswer(invocation -> books.stream());
+        when(bookRepository.findSummariesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return books.stream().filter(book -> ids.contains(book.id())).toList();
+        });
+        facetService.rebuild();
+    }
+
+    @Test
+    void unfilteredCountsComeFromTheRunningTotals() {
+        FacetCounts facets = facetService.counts(BookFilter.NONE);
+
+        assertThat(facets.categories()).containsExactly(
+                new FacetCount(scienceFiction, "Science Fiction", 3), new FacetCount(fantasy, "Fantasy", 1));
+        assertThat(facets.authors()).containsExactly(
+                new FacetCount(leGuin, "Ursula K. Le Guin", 3), new FacetCount(lem, "Stanisław Lem", 1));
+        assertThat(facets.available()).isEqualTo(3);
+        assertThat(facets.borrowed()).isEqualTo(1);
+    }
+
+    @Test
+    void combinedFiltersIntersectAndListNewestFirst() {
+        FacetedPage result = facetService.browse(new BookFilter(scienceFiction, leGuin, true), 1);
+
+        assertThat(result.books()).extracting(BookSummary::title).containsExactly("The Left Hand of Darkness");
+        assertThat(result.totalItems()).isEqualTo(1);
+
+        result = facetService.browse(new BookFilter(scienceFiction, null, false), 1);
+        assertThat(result.books()).extracting(BookSummary::title)
+                .containsExactly("Solaris", "The Left Hand of Darkness", "The Dispossessed");
+    }
+
+    @Test
+    void eachFacetIsCountedWithoutItsOwnSelection() {
+        FacetCounts facets = facetService.counts(new BookFilter(fantasy, leGuin, false));
+
+        // Le Guin's books per category, and every author of fantasy books
+        assertThat(facets.categories()).containsExactly(
+                new FacetCount(scienceFiction, "Science Fiction", 2), new FacetCount(fantasy, "Fantasy", 1));
+        assertThat(facets.authors()).containsExactly(new FacetCount(leGuin, "Ursula K. Le Guin", 1));
+        assertThat(facets.available()).isEqualTo(1);
+    }
+
+    @Test
+    void writesUpdateCountsIncrementally() {
+        BookSummary moved = books.get(3);
+        facetService.index(new BookSummary(moved.id(), moved.title(), null, null, true,
+                lem, "Stanisław Lem", fantasy, "Fantasy", moved.createdAt()));
+        facetService.remove(books.get(0).id());
+        facetService.renameCategory(scienceFiction, "SF");
+
+        FacetCounts facets = facetService.counts(BookFilter.NONE);
+        assertThat(facets.categories()).containsExactly(
+                new FacetCount(scienceFiction, "SF", 2), new FacetCount(fantasy, "Fantasy", 1));
+        assertThat(facets.available()).isEqualTo(1);
+        assertThat(facets.borrowed()).isEqualTo(2);
+    }
+
+    private static BookSummary book(String title, UUID authorId, String authorName,
+                                    UUID categoryId, String categoryName, boolean borrowed) {
+        return new BookSummary(UUID.randomUUID(), title, null, null, borrowed,
+                authorId, authorName, categoryId, categoryName, new Date());
+    }
+}
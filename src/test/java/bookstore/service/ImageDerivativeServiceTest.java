@@ -0,0 +1,66 @@
+package bookstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDerivativeServiceTest {
+
+    @Test
+    void scalesDownToFitTheBoundingBoxKeepingAspectRatio() {
+        BufferedImage cover = new BufferedImage(1200, 1200, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage thumb = ImageDerivativeService.scale(cover, ImageDerivativeService.Size.THUMB);
+        BufferedImage medium = ImageDerivativeService.scale(cover, ImageDerivativeService.Size.MEDIUM);
+
+        assertThat(thumb.getWidth()).isEqualTo(240);
+        assertThat(thumb.getHeight()).isEqualTo(240);
+        assertThat(medium.getWidth()).isEqualTo(600);
+        assertThat(medium.getHeight()).isEqualTo(600);
+        // Flattened for JPEG
+        assertThat(thumb.getColorModel().hasAlpha()).isFalse();
+    }
+
+    @Test
+    void neverScalesUp() {
+        BufferedImage small = new BufferedImage(100, 150, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage thumb = ImageDerivativeService.scale(small, ImageDerivativeService.Size.THUMB);
+
+        assertThat(thumb.getWidth()).isEqualTo(100);
+        assertThat(thumb.getHeight()).isEqualTo(150);
+    }
+
+    @Test
+    void recognisesDerivativeFileNames() {
+        String url = "/uploads/books/42_cover.png";
+
+        assertThat(ImageDerivativeService.derivativeUrl(url, ImageDerivativeService.Size.THUMB))
+                .isEqualTo("/uploads/books/42_cover.png.thumb.jpg");
+        assertThat(ImageDerivativeService.isDerivative("42_cover.png.medium.jpg")).isTrue();
+        assertThat(ImageDerivativeService.isDerivative("42_cover.png")).isFalse();
+    }
+
+    @Test
+    void skipsImagesAboveThePixelBudget() throws IOException {
+        // Relative, like the upload URLs the service resolves against the working directory
+        Path dir = Files.createTempDirectory(Files.createDirectories(Paths.get("target")), "derivatives-");
+        Path original = dir.resolve("cover.png");
+        ImageIO.write(new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+        String url = original.toString();
+        ImageDerivativeService service = new ImageDerivativeService();
+
+        assertThat(service.generate(url, 300 * 300 - 1)).isFalse();
+        assertThat(service.hasDerivatives(url)).isFalse();
+
+        assertThat(service.generate(url)).isTrue();
+        assertThat(service.hasDerivatives(url)).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package bookstore.service;
+
+import bookstore.repository.AuthorRepository;
+import bookstore.repository.BookRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MediaGarbageCollectorTest {
+
+    private static final String SHARED = MediaStorageService.blobUrl("a".repeat(64), ".png");
+    private static final String ORPHAN = MediaStorageService.blobUrl("b".repeat(64), ".png");
+    private static final String FRESH = MediaStorageService.blobUrl("c".repeat(64), ".png");
+
+    @TempDir
+    Path root;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AuthorRepository authorRepository = mock(AuthorRepository.class);
+    private MediaStorageService storage;
+    private MediaGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new MediaStorageService(root);
+        collector = new MediaGarbageCollector(bookRepository, authorRepository, storage,
+                mock(ThreadPoolTaskExecutor.class), Duration.ofHours(1));
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        write(SHARED, old);
+        write(ImageDerivativeService.derivativeUrl(SHARED, ImageDerivativeService.Size.THUMB), old);
+        write(ORPHAN, old);
+        write(ImageDerivativeService.derivativeUrl(ORPHAN, ImageDerivativeService.Size.THUMB), old);
+        write(FRESH, Instant.now());
+    }
+
+    @Test
+    void keepsABlobWhileAnyRowStillRefersToIt() {
+        when(bookRepository.countByImageUrl(SHARED)).thenReturn(1L);
+
+        assertThat(collector.collect(SHARED)).isFalse();
+        assertThat(Files.exists(storage.resolve(SHARED))).isTrue();
+    }
+
+    @Test
+    void deletesAnUnreferencedBlobWithItsDerivatives() {
+        assertThat(collector.collect(ORPHAN)).isTrue();
+
+        assertThat(Files.exists(storage.resolve(ORPHAN))).isFalse();
+        assertThat(Files.exists(storage.resolve(
+                ImageDerivativeService.derivativeUrl(ORPHAN, ImageDerivativeService.Size.THUMB)))).isFalse();
+    }
+
+    @Test
+    void sweepSparesReferencedAndRecentBlobs() {
+        when(bookRepository.findImageUrls()).thenReturn(List.of());
+        when(authorRepository.findImageUrls()).thenReturn(List.of(SHARED));
+
+        collector.sweep();
+
+        assertThat(Files.exists(storage.resolve(SHARED))).isTrue();
+        assertThat(Files.exists(storage.resolve(
+                ImageDerivativeService.derivativeUrl(SHARED, ImageDerivativeService.Size.THUMB)))).isTrue();
+        // Published but not attached to its row yet
+        assertThat(Files.exists(storage.resolve(FRESH))).isTrue();
+        assertThat(Files.exists(storage.resolve(ORPHAN))).isFalse();
+    }
+
+    private void write(String url, Instant modified) throws Exception {
+        Path file = storage.resolve(url);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+}
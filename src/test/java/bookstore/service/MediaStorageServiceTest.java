@@ -0,0 +1,174 @@
+package bookstore.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaStorageServiceTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13};
+
+    @TempDir
+    Path root;
+
+    private MediaStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new MediaStorageService(root);
+    }
+
+    @Test
+    void concurrentUploadsAreStreamedNotBuffered() throws Exception {
+        long size = 4 * 1024 * 1024;
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<String>> stored = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int seed = i;
+                stored.add(pool.submit(() -> storage.storeImage(
+                        new GeneratedUpload("cover.png", PNG_SIGNATURE, size, seed))));
+            }
+            for (Future<String> url : stored) {
+                assertThat(Files.size(storage.resolve(url.get()))).isEqualTo(size);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        // Only the ten finished blobs, no temp files left behind
+        assertThat(files()).hasSize(10).noneMatch(file -> file.getFileName().toString().endsWith(".tmp"));
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        String first = storage.storeImage(new GeneratedUpload("cover.png", PNG_SIGNATURE, 1000, 0));
+        String second = storage.storeImage(new GeneratedUpload("other-name.png", PNG_SIGNATURE, 1000, 0));
+        String different = storage.storeImage(new GeneratedUpload("cover.png", PNG_SIGNATURE, 1000, 1));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(different).isNotEqualTo(first);
+        assertThat(first).matches("/uploads/blobs/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+        assertThat(files()).hasSize(2);
+    }
+
+    @Test
+    void rejectsContentThatIsNotAnImageWhateverTheDeclaredType() {
+        MultipartFile script = new MockMultipartFile("image", "cover.png", "image/png", "<script>".getBytes());
+
+        assertThatThrownBy(() -> storage.storeImage(script))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void stopsReadingOnceTheStreamExceedsTheLimit() {
+        // Declares a small size but streams more than the limit
+        MultipartFile oversized = new GeneratedUpload("cover.png", PNG_SIGNATURE, MediaStorageService.MAX_IMAGE_SIZE * 2, 0) {
+            @Override
+            public long getSize() {
+                return 1024;
+            }
+        };
+
+        assertThatThrownBy(() -> storage.storeImage(oversized))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("5MB");
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void ignoresTheClientFileName() throws Exception {
+        String url = storage.storeImage(new GeneratedUpload("../../etc/pass wd.gif", PNG_SIGNATURE, 100, 0));
+
+        // Named by content and detected type only
+        assertThat(url).startsWith("/uploads/blobs/").endsWith(".png").doesNotContain("pass");
+    }
+
+    // Regular files anywhere under the root, staging included
+    private List<Path> files() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    // A multipart file generated on the fly: reading it through getBytes() would defeat streaming
+    private static class GeneratedUpload implements MultipartFile {
+        private final String name;
+        private final byte[] header;
+        private final long size;
+        private final int seed;
+
+        GeneratedUpload(String name, byte[] header, long size, int seed) {
+            this.name = name;
+            this.header = header;
+            this.size = size;
+            this.seed = seed;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+
+                @Override
+                public int read() {
+                    if (position >= size) {
+                        return -1;
+                    }
+                    return position < header.length ? header[(int) position++] & 0xFF : (int) ((position++ + seed) & 0x7F);
+                }
+            };
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new UnsupportedOperationException("upload must be streamed");
+        }
+
+        @Override
+        public String getName() {
+            return "image";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return name;
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/png";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package bookstore.util;
+
+import bookstore.dto.BookImportRow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csvColumnsAreMatchedByHeaderNameAndQuotedFieldsKeepCommasAndLineBreaks() throws IOException {
+        String csv = "\uFEFFISBN,Title,Author,Category,published_date,Description\r\n"
+                + "111,\"Dune, Part One\",frank@example.com,Science Fiction,1965-08-01,\"A \"\"desert\"\"\nplanet\"\r\n"
+                + "\r\n"
+                + "222,Emma,Jane Austen,Classics,,";
+
+        List<BookImportRow> rows = read(csv, BookImportReader.Format.CSV);
+
+        assertThat(rows).containsExactly(
+                new BookImportRow("Dune, Part One", "111", "frank@example.com", "Science Fiction",
+                        "A \"desert\"\nplanet", "1965-08-01"),
+                new BookImportRow("Emma", "222", "Jane Austen", "Classics", "", ""));
+    }
+
+    @Test
+    void jsonAcceptsAnArrayOrOneObjectPerLine() throws IOException {
+        String array = "[{\"title\":\"Emma\",\"isbn\":\"222\",\"published_date\":\"1815-12-23\",\"pages\":474}]";
+        String lines = "{\"title\":\"Emma\",\"isbn\":\"222\"}\n{\"title\":\"Dune\",\"isbn\":\"111\"}\n";
+
+        assertThat(read(array, BookImportReader.Format.JSON))
+                .containsExactly(new BookImportRow("Emma", "222", null, null, null, "1815-12-23"));
+        assertThat(read(lines, BookImportReader.Format.JSON)).extracting(BookImportRow::title)
+                .containsExactly("Emma", "Dune");
+    }
+
+    @Test
+    void rejectsUnknownFormatsAndHeadersWithoutTitle() {
+        assertThatThrownBy(() -> BookImportReader.Format.fromFileName("books.xlsx"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("isbn,author\n1,a\n", BookImportReader.Format.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("title");
+    }
+
+    private List<BookImportRow> read(String content, BookImportReader.Format format) throws IOException {
+        List<BookImportRow> rows = new ArrayList<>();
+        try (BookImportReader reader = BookImportReader.open(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, objectMapper)) {
+            reader.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+}
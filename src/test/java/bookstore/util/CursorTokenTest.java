@@ -0,0 +1,40 @@
+package bookstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTokenTest {
+
+    @Test
+    void roundTripsTheSortKey() {
+        CursorToken token = new CursorToken(new Date(1_700_000_000_123L), UUID.randomUUID());
+
+        assertThat(CursorToken.decode(token.encode())).isEqualTo(token);
+        // URL-safe without escaping
+        assertThat(token.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void malformedTokensAreRejectedWithOneMessage() {
+        List<String> malformed = List.of("%%%", "", encode("no-separator"), encode("soon:" + UUID.randomUUID()),
+                encode("1700000000123:not-a-uuid"), encode(":"));
+
+        for (String token : malformed) {
+            assertThatThrownBy(() -> CursorToken.decode(token)).as(token)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid page cursor");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,39 @@
+package bookstore.util;
+
+import bookstore.dto.CategorySummary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldsetTest {
+
+    private final CategorySummary fiction = new CategorySummary(UUID.randomUUID(), "Fiction", new Date());
+
+    @Test
+    void blankSelectsEveryFieldInDeclarationOrder() {
+        assertThat(SparseFieldset.of(CategorySummary.class, "").apply(fiction))
+                .containsOnlyKeys("id", "name", "createdAt");
+        assertThat(SparseFieldset.of(CategorySummary.class, null).names())
+                .containsExactly("id", "name", "createdAt");
+    }
+
+    @Test
+    void alwaysKeepsTheId() {
+        assertThat(SparseFieldset.of(CategorySummary.class, " name ").apply(fiction))
+                .containsExactly(
+                        org.assertj.core.api.Assertions.entry("id", fiction.id()),
+                        org.assertj.core.api.Assertions.entry("name", "Fiction"));
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> SparseFieldset.of(CategorySummary.class, "name,secret"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("secret");
+    }
+}
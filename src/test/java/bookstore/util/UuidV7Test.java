@@ -0,0 +1,36 @@
+package bookstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void carriesVersionVariantAndCreationTime() {
+        Instant before = Instant.now().minusMillis(1);
+        UUID uuid = UuidV7.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestamp(uuid)).isBetween(before, Instant.now().plus(Duration.ofSeconds(1)));
+        assertThat(UuidV7.timestamp(UUID.randomUUID())).isNull();
+    }
+
+    // Far more than 4096 per millisecond, so the sequence overflows into the next millisecond
+    @Test
+    void isStrictlyIncreasingAsTextAndAsBytes() {
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertThat(next.toString()).isGreaterThan(previous.toString());
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+}